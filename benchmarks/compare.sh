@@ -0,0 +1,35 @@
+#!/bin/sh
+# Compare two JMH JSON result files and fail on regressions:
+#   benchmarks/compare.sh baseline.json current.json [threshold-percent]
+# A benchmark regresses when it is worse by more than the threshold (default 10%) and by more
+# than the two runs' combined error margins. Exits 1 if any benchmark regressed.
+set -e
+if [ $# -lt 2 ]; then
+    echo "usage: $0 baseline.json current.json [threshold-percent]" >&2
+    exit 2
+fi
+THRESHOLD=${3:-10}
+
+RESULT=$(jq -r -n --slurpfile base "$1" --slurpfile curr "$2" --argjson threshold "$THRESHOLD" '
+    def key: .benchmark + ((.params // {}) | to_entries | sort_by(.key) | map(" " + .key + "=" + .value) | join(""));
+    def index: map({ key: key, value: . }) | from_entries;
+    ($base[0] | index) as $b
+    | ($curr[0] | index) as $c
+    | ($c | keys[]) as $k
+    | select($b[$k] != null)
+    | $b[$k].primaryMetric as $old
+    | $c[$k].primaryMetric as $new
+    # Throughput is better when higher, every time-per-operation mode when lower
+    | (if $c[$k].mode == "thrpt" then ($old.score - $new.score) else ($new.score - $old.score) end) as $worse
+    | ($worse / $old.score * 100) as $pct
+    | (($old.scoreError | if . == "NaN" then 0 else . end) + ($new.scoreError | if . == "NaN" then 0 else . end)) as $noise
+    | [ (if $pct > $threshold and $worse > $noise then "REGRESSION" elif $pct < -$threshold and -$worse > $noise then "improved" else "ok" end),
+        $k,
+        "\($old.score * 1000 | round / 1000) -> \($new.score * 1000 | round / 1000) \($new.scoreUnit)",
+        "\(if $pct > 0 then "+" else "" end)\($pct * 10 | round / 10)% worse" ]
+    | join("\t")
+')
+echo "$RESULT"
+if echo "$RESULT" | grep -q '^REGRESSION'; then
+    exit 1
+fi
@@ -0,0 +1,41 @@
+package recipeSharing.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import recipeSharing.util.ImageUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Decoding the data URI images that recipe and registration requests carry
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageDecodeBenchmark {
+
+    @Param({"16384", "262144", "1048576"})
+    private int imageBytes;
+
+    private String dataUri;
+
+    @Setup
+    public void setUp() {
+        dataUri = Payloads.imageDataUri(imageBytes);
+    }
+
+    @Benchmark
+    public byte[] decodeBase64ToImage() {
+        return ImageUtils.decodeBase64ToImage(dataUri);
+    }
+}
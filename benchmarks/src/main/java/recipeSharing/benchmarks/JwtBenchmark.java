@@ -0,0 +1,109 @@
+package recipeSharing.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import recipeSharing.entity.AuthUser;
+import recipeSharing.service.JWTService;
+import recipeSharing.service.TokenRevocationService;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Token issue on login, and the per-request check with and without the verified-token cache,
+// against the check every request made before the cache and the shared parser
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final long EXPIRATION_MS = 36_000_000L;
+    private static final int COLD_TOKENS = 1024;
+
+    private JWTService jwtService;
+    private JWTService uncachedJwtService;
+    private AuthUser user;
+    private String token;
+    private String[] coldTokens;
+    private int next;
+    private Key secretKey;
+    private final Set<String> legacyBlacklist = ConcurrentHashMap.newKeySet();
+
+    @Setup
+    public void setUp() {
+        user = AuthUser.builder().id("65a1f0c2e4b0a1b2c3d4e5f8").username("benchmark-user").active(true).build();
+
+        jwtService = jwtService(10_000L);
+        token = jwtService.generateToken(user);
+        secretKey = (Key) Payloads.getField(jwtService, "secretKey");
+
+        // A zero-sized verified-token cache makes every check parse and verify the signature
+        uncachedJwtService = jwtService(0L);
+        coldTokens = new String[COLD_TOKENS];
+        for (int i = 0; i < COLD_TOKENS; i++) {
+            coldTokens[i] = uncachedJwtService.generateToken(user);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public boolean isTokenValidUncached() {
+        next = (next + 1) % COLD_TOKENS;
+        return uncachedJwtService.isTokenValid(coldTokens[next], user);
+    }
+
+    // The controllers' authenticateUser before the cache, minus the user lookup: extractUsername, then
+    // isTokenValid's extractUsername and extractExpiration, each building a parser and verifying the signature
+    @Benchmark
+    public boolean legacyAuthenticate() {
+        String username = legacyClaims(token).getSubject();
+        if (!username.equals(user.getUsername())) {
+            return false;
+        }
+        return legacyClaims(token).getSubject().equals(user.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date())
+                && !legacyBlacklist.contains(token);
+    }
+
+    private Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JWTService jwtService(long verifiedCacheMaxSize) {
+        // Not shared, so the revocation service never touches its (absent) MongoTemplate
+        JWTService service = new JWTService(new TokenRevocationService(null, EXPIRATION_MS, 100_000L, false), new SimpleMeterRegistry());
+        Payloads.setField(service, "tokenExpirationMs", EXPIRATION_MS);
+        Payloads.setField(service, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,92 @@
+package recipeSharing.benchmarks;
+
+import recipeSharing.bean.RecipeDTO;
+import recipeSharing.entity.Ingredient;
+import recipeSharing.entity.Recipe;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+// Realistic request payloads, built deterministically so runs are comparable
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    // A Base64 data URI as the web client sends it, wrapping incompressible bytes like a real JPEG's
+    static String imageDataUri(int imageBytes) {
+        byte[] image = new byte[imageBytes];
+        new Random(42).nextBytes(image);
+        image[0] = (byte) 0xFF;
+        image[1] = (byte) 0xD8;
+        image[2] = (byte) 0xFF;
+        return "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(image);
+    }
+
+    static RecipeDTO recipeDTO(int imageBytes) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setTitle("Chicken curry with coconut milk");
+        dto.setDescription("A mild Sri Lankan style curry. ".repeat(8));
+        dto.setInstructions("Fry the onions until golden, add the spices and the chicken, then simmer. ".repeat(12));
+        dto.setServingSize(4);
+        dto.setCreatedBy("benchmark-user");
+        dto.setCategory("65a1f0c2e4b0a1b2c3d4e5f6");
+        dto.setImageUrl(imageDataUri(imageBytes));
+        dto.setIngredients(ingredients(12));
+        return dto;
+    }
+
+    static Recipe recipe(int imageBytes) {
+        Recipe recipe = new Recipe();
+        RecipeDTO dto = recipeDTO(imageBytes);
+        recipe.setId("65a1f0c2e4b0a1b2c3d4e5f7");
+        recipe.setTitle(dto.getTitle());
+        recipe.setDescription(dto.getDescription());
+        recipe.setInstructions(dto.getInstructions());
+        recipe.setServingSize(dto.getServingSize());
+        recipe.setCreatedBy(dto.getCreatedBy());
+        recipe.setCategory(dto.getCategory());
+        recipe.setImageUrl(dto.getImageUrl());
+        recipe.setIngredients(dto.getIngredients());
+        recipe.setFavoriteCount(17);
+        recipe.setVersion(3L);
+        return recipe;
+    }
+
+    private static List<Ingredient> ingredients(int count) {
+        String[] names = {"chicken", "coconut milk", "onion", "garlic", "ginger", "curry powder",
+                "chilli", "turmeric", "salt", "oil", "curry leaves", "lime"};
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setName(names[i % names.length]);
+            ingredient.setUnitOfMeasurement(i % 2 == 0 ? "g" : "tbsp");
+            ingredients.add(ingredient);
+        }
+        return ingredients;
+    }
+
+    // Fills the @Value fields of services constructed outside Spring
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    static Object getField(Object target, String name) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            return field.get(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read " + name + " of " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
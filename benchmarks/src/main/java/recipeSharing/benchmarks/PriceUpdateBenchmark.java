@@ -0,0 +1,50 @@
+package recipeSharing.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import recipeSharing.service.PriceListService;
+import recipeSharing.service.PriceSnapshot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The scheduled price refresh over price lists far larger than the bundled prices.json
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceUpdateBenchmark {
+
+    @Param({"1000", "100000"})
+    private int items;
+
+    private PriceListService priceListService;
+
+    @Setup
+    public void setUp() {
+        priceListService = new PriceListService(event -> { }); // No subscribers: measures the update itself
+        Map<String, String> prices = new LinkedHashMap<>();
+        for (int i = 0; i < items; i++) {
+            prices.put("item-" + i, "Rs. " + (100 + i % 400) + ".00");
+        }
+        priceListService.updateItemPrices(prices);
+    }
+
+    @Benchmark
+    public PriceSnapshot updatePrices() {
+        priceListService.updatePrices();
+        return priceListService.getSnapshot();
+    }
+}
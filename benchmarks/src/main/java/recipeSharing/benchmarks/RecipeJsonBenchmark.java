@@ -0,0 +1,55 @@
+package recipeSharing.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import recipeSharing.bean.RecipeDTO;
+import recipeSharing.entity.Recipe;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Request and response bodies of the recipe endpoints, with the Base64 image still inline
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecipeJsonBenchmark {
+
+    // Decoded image size in bytes: a thumbnail, a phone photo, a large upload
+    @Param({"16384", "262144", "1048576"})
+    private int imageBytes;
+
+    private ObjectMapper objectMapper;
+    private Recipe recipe;
+    private byte[] recipeDTOJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build(); // Configured as Spring Boot's is
+        recipe = Payloads.recipe(imageBytes);
+        recipeDTOJson = objectMapper.writeValueAsBytes(Payloads.recipeDTO(imageBytes));
+    }
+
+    @Benchmark
+    public byte[] serializeRecipe() throws IOException {
+        return objectMapper.writeValueAsBytes(recipe);
+    }
+
+    @Benchmark
+    public RecipeDTO deserializeRecipeDTO() throws IOException {
+        return objectMapper.readValue(recipeDTOJson, RecipeDTO.class);
+    }
+}
@@ -0,0 +1,15 @@
+#!/bin/sh
+# Print the headline numbers of two k6 summaries side by side:
+#   loadtest/compare.sh summary-servlet.json summary-reactive.json
+set -e
+for f in "$@"; do
+    jq -r --arg f "$f" '[
+        $f,
+        (.metrics.http_reqs.values.rate | floor | tostring) + " req/s",
+        "p50 " + (.metrics.http_req_duration.values.med | tostring | .[0:6]) + " ms",
+        "p95 " + (.metrics.http_req_duration.values["p(95)"] | tostring | .[0:6]) + " ms",
+        "p99 " + (.metrics.http_req_duration.values["p(99)"] | tostring | .[0:6]) + " ms",
+        "failed " + ((.metrics.http_req_failed.values.rate * 100) | tostring | .[0:5]) + " %",
+        "dropped " + ((.metrics.dropped_iterations.values.count // 0) | tostring)
+    ] | join("  ")' "$f"
+done
@@ -0,0 +1,93 @@
+// Recipe and category read/write mix for comparing the servlet and reactive stacks.
+//
+//   k6 run -e BASE_URL=http://localhost:6065 -e STACK=servlet loadtest/recipes.js
+//
+// Writes summary-<STACK>.json next to the working directory; see loadtest/README.md.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:6065';
+const STACK = __ENV.STACK || 'servlet';
+const PEAK_RATE = parseInt(__ENV.PEAK_RATE || '2000', 10); // requests per second at the top of each burst
+const SEED_RECIPES = parseInt(__ENV.SEED_RECIPES || '200', 10);
+
+export const options = {
+    scenarios: {
+        // Bursty arrivals: an open model keeps sending at the target rate even when responses slow down,
+        // which is what exposes threads piling up behind Mongo
+        bursts: {
+            executor: 'ramping-arrival-rate',
+            startRate: 50,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 5000,
+            stages: [
+                { target: 200, duration: '30s' },
+                { target: PEAK_RATE, duration: '10s' },
+                { target: PEAK_RATE, duration: '30s' },
+                { target: 200, duration: '10s' },
+                { target: PEAK_RATE, duration: '10s' },
+                { target: PEAK_RATE, duration: '30s' },
+                { target: 0, duration: '10s' },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    const username = `load-${STACK}-${Date.now()}`;
+    const password = 'load-test-password';
+    http.post(`${BASE_URL}/users/register`, { username, email: `${username}@example.com`, password, birthday: '1990-01-01' });
+    const login = http.post(`${BASE_URL}/users/login`, JSON.stringify({ username, password }),
+        { headers: { 'Content-Type': 'application/json' } });
+    const token = login.json('data.token');
+    if (!token) {
+        throw new Error(`login failed: ${login.status} ${login.body}`);
+    }
+    const headers = { Authorization: token, 'Content-Type': 'application/json' };
+
+    const category = http.post(`${BASE_URL}/categories/create`, JSON.stringify({ name: `load-${STACK}` }), { headers });
+    const categoryId = category.json('id');
+
+    const ids = [];
+    for (let i = 0; i < SEED_RECIPES; i++) {
+        const created = http.post(`${BASE_URL}/recipes/create`, JSON.stringify({
+            title: `Load test recipe ${i}`,
+            description: 'Seeded by loadtest/recipes.js',
+            instructions: 'Mix and serve.',
+            servingSize: 2,
+            category: categoryId,
+            ingredients: [{ name: 'flour', unitOfMeasurement: 'g' }],
+        }), { headers });
+        const id = created.json('data.id');
+        if (id) {
+            ids.push(id);
+        }
+    }
+    return { token, ids };
+}
+
+export default function (data) {
+    const headers = { Authorization: data.token };
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    const roll = Math.random();
+    let res;
+    if (roll < 0.5) {
+        res = http.get(`${BASE_URL}/recipes/all?size=20`, { headers, tags: { name: 'recipes/all' } });
+    } else if (roll < 0.75) {
+        res = http.get(`${BASE_URL}/recipes/${id}`, { headers, tags: { name: 'recipes/{id}' } });
+    } else if (roll < 0.85) {
+        res = http.get(`${BASE_URL}/categories/all`, { headers, tags: { name: 'categories/all' } });
+    } else if (roll < 0.95) {
+        res = http.put(`${BASE_URL}/recipes/favorite/${id}`, null, { headers, tags: { name: 'recipes/favorite' } });
+    } else {
+        res = http.patch(`${BASE_URL}/recipes/update/${id}`, JSON.stringify({ description: `updated ${Date.now()}` }),
+            { headers: { ...headers, 'Content-Type': 'application/merge-patch+json' }, tags: { name: 'recipes/update' } });
+    }
+    check(res, { 'status is 2xx': (r) => r.status >= 200 && r.status < 300 });
+}
+
+export function handleSummary(data) {
+    return { [`summary-${STACK}.json`]: JSON.stringify(data, null, 2) };
+}
@@ -0,0 +1,15 @@
+package recipeSharing.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Slim view of an authenticated user: no password hash and no image
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthPrincipal {
+    private String id;
+    private String username;
+    private boolean active;
+}
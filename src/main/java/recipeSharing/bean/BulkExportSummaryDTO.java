@@ -0,0 +1,14 @@
+package recipeSharing.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Last line of a recipe export; an export that does not end with it was cut off
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkExportSummaryDTO {
+    private String status = "summary";
+    private long recipes;
+}
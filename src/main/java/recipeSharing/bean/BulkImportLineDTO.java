@@ -0,0 +1,26 @@
+package recipeSharing.bean;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one NDJSON line of a bulk import; results arrive in chunk order, so match them by line
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkImportLineDTO {
+    private long line; // 1-based line number in the uploaded file
+    private String status; // "created" or "failed"
+    private String id; // Id of the created recipe
+    private String error; // Why the line was rejected
+
+    public static BulkImportLineDTO created(long line, String id) {
+        return new BulkImportLineDTO(line, "created", id, null);
+    }
+
+    public static BulkImportLineDTO failed(long line, String error) {
+        return new BulkImportLineDTO(line, "failed", null, error);
+    }
+}
@@ -0,0 +1,16 @@
+package recipeSharing.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Last line of a bulk import response
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportSummaryDTO {
+    private String status = "summary";
+    private long lines;
+    private long created;
+    private long failed;
+}
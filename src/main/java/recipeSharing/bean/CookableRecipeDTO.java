@@ -0,0 +1,18 @@
+package recipeSharing.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CookableRecipeDTO {
+    private String id;
+    private String title;
+    private int totalIngredients;
+    private int matchedIngredients;
+    private List<String> missingIngredients;
+}
@@ -1,9 +1,11 @@
 package recipeSharing.bean;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 public class LoginDTO {
     private String username;
+    @ToString.Exclude
     private String password;
 }
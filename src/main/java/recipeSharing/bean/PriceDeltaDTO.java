@@ -0,0 +1,15 @@
+package recipeSharing.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceDeltaDTO {
+    private long version; // Pass back as "since" to receive only later changes
+    private Map<String, String> prices;
+}
@@ -0,0 +1,22 @@
+package recipeSharing.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeCostDTO {
+    private String recipeId;
+    private String title;
+    private int servingSize;
+    private int servings; // Servings the cost was scaled to
+    private String totalCost;
+    private String costPerServing;
+    private int matchedIngredients;
+    private List<String> unpricedIngredients; // Ingredients with no current price, not included in the cost
+    private long priceVersion; // Price snapshot version the cost was computed from
+}
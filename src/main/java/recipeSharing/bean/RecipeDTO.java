@@ -7,8 +7,8 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.mongodb.core.mapping.DBRef;
-import recipeSharing.entity.AuthUser;
 import recipeSharing.entity.Category;
 import recipeSharing.entity.Ingredient;
 
@@ -22,19 +22,21 @@ import java.util.List;
 public class RecipeDTO {
     private String id;
     private String title;
+    @ToString.Exclude // Free text, the image and the ingredient list stay out of log lines
     private String description;
+    @ToString.Exclude
     private String instructions;
 
     private int servingSize;
     private String createdBy;
 
+    @ToString.Exclude // Usually a Base64 data URI on requests
     private String imageUrl;
 
     private String category; // Reference to Category
 
-    private AuthUser authUser; // Reference to User
-
     // Embedded ingredients
+    @ToString.Exclude
     private List<Ingredient> ingredients;
 
     private boolean isFavorite;
@@ -0,0 +1,18 @@
+package recipeSharing.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+    private String query;
+    private int total; // Number of matching recipes across all pages
+    private int page;
+    private int size;
+    private List<SearchHitDTO> hits;
+}
@@ -1,6 +1,7 @@
 package recipeSharing.bean;
 
 import lombok.Data;
+import lombok.ToString;
 
 import java.util.Date;
 
@@ -8,7 +9,9 @@ import java.util.Date;
 public class UserDTO {
     private String email;
     private String username;
+    @ToString.Exclude
     private String password;
     private Date birthday;
+    @ToString.Exclude // Base64 data URI
     private String image;
 }
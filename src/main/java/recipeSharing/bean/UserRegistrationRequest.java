@@ -8,14 +8,23 @@
 package recipeSharing.bean;
 
 import lombok.Data;
+import lombok.ToString;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import java.util.Date;
 
 @Data
 public class UserRegistrationRequest {
+
+    // Usernames end up as values in Mongo queries and updates, where a leading $ means an operator or field path
+    public static final String INVALID_USERNAME = "Username must not start with '$'";
+
     private String username;
     private String email;
+    @ToString.Exclude
     private String password;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) // yyyy-MM-dd form field
     private Date birthday;
+    @ToString.Exclude // Base64 data URI
     private String image;
 }
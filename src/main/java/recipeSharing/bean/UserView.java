@@ -0,0 +1,16 @@
+package recipeSharing.bean;
+
+import lombok.Data;
+
+import java.util.Date;
+
+// What responses show of a user: everything except the password hash and Spring Security's flags
+@Data
+public class UserView {
+    private String id;
+    private String username;
+    private String email;
+    private Date birthday;
+    private String image;
+    private boolean active;
+}
@@ -0,0 +1,33 @@
+package recipeSharing.bean;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a conditional write: owner-checked and/or guarded by an expected version
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteResult<T> {
+
+    public enum Status { OK, NOT_FOUND, FORBIDDEN, PRECONDITION_FAILED }
+
+    private Status status;
+    private T value; // Document after the write; null unless status is OK
+
+    public static <T> WriteResult<T> ok(T value) {
+        return new WriteResult<>(Status.OK, value);
+    }
+
+    public static <T> WriteResult<T> notFound() {
+        return new WriteResult<>(Status.NOT_FOUND, null);
+    }
+
+    public static <T> WriteResult<T> forbidden() {
+        return new WriteResult<>(Status.FORBIDDEN, null);
+    }
+
+    public static <T> WriteResult<T> preconditionFailed() {
+        return new WriteResult<>(Status.PRECONDITION_FAILED, null);
+    }
+}
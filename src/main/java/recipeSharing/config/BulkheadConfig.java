@@ -0,0 +1,50 @@
+package recipeSharing.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ConnectionString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import recipeSharing.util.Bulkhead;
+
+import java.time.Duration;
+
+@Configuration
+public class BulkheadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadConfig.class);
+
+    // The driver's own default for maxPoolSize
+    private static final int DEFAULT_MONGO_POOL_SIZE = 100;
+
+    // Requests that may be talking to Mongo at once; defaults to the connection pool size so a
+    // request holding a permit never waits for a connection
+    @Bean
+    public Bulkhead mongoBulkhead(@Value("${spring.data.mongodb.uri}") String uri,
+                                  @Value("${bulkhead.mongo.permits:0}") int permits) {
+        if (permits <= 0) {
+            Integer poolSize = new ConnectionString(uri).getMaxConnectionPoolSize();
+            permits = poolSize != null && poolSize > 0 ? poolSize : DEFAULT_MONGO_POOL_SIZE;
+        }
+        logger.info("Mongo bulkhead: {} permits", permits);
+        return new Bulkhead("mongo", permits);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(name = "bulkhead.mongo.enabled", havingValue = "true")
+    public FilterRegistrationBean<MongoBulkheadFilter> mongoBulkheadFilter(@Qualifier("mongoBulkhead") Bulkhead mongoBulkhead, ObjectMapper objectMapper,
+                                                                          @Value("${bulkhead.mongo.max-wait-ms:200}") long maxWaitMs) {
+        FilterRegistrationBean<MongoBulkheadFilter> registration =
+                new FilterRegistrationBean<>(new MongoBulkheadFilter(mongoBulkhead, Duration.ofMillis(maxWaitMs), objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE); // Shed load before security does any work
+        return registration;
+    }
+}
@@ -2,11 +2,13 @@ package recipeSharing.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
 @Configuration
+@Profile("!reactive") // Servlet filter; ReactiveSecurityConfig registers the WebFlux equivalent
 public class CorsConfig {
 
     @Bean
@@ -0,0 +1,85 @@
+package recipeSharing.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples log statements per message type, the format string of the call. Each type is logged in
+ * full up to perSecond times a second; past that only every sampleRate-th call gets through until
+ * the next second starts. A turbo filter runs before Logback creates the event, so a sampled-out
+ * call never formats its message or touches the appender queue. WARN and ERROR are never sampled.
+ * Configured from logback-spring.xml.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    // Calls dropped since startup, exported as logging.sampled.out
+    private static final LongAdder sampledOut = new LongAdder();
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    private int perSecond = 20;
+    private int sampleRate = 100;
+    private int maxTypes = 2000;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL; // isEnabled() checks, and WARN/ERROR
+        }
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL; // Disabled anyway; keep it out of the counts
+        }
+        Window window = windows.get(format);
+        if (window == null) {
+            if (windows.size() >= maxTypes) {
+                return FilterReply.NEUTRAL; // Messages built by concatenation; nothing sensible to key them by
+            }
+            window = windows.computeIfAbsent(format, key -> new Window());
+        }
+        if (window.admit(System.currentTimeMillis() / 1000, perSecond, sampleRate)) {
+            return FilterReply.NEUTRAL;
+        }
+        sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    public static long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    public void setPerSecond(int perSecond) {
+        this.perSecond = perSecond;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public void setMaxTypes(int maxTypes) {
+        this.maxTypes = maxTypes;
+    }
+
+    private static class Window {
+
+        private final AtomicLong second = new AtomicLong();
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean admit(long now, int perSecond, int sampleRate) {
+            long current = second.get();
+            if (current != now && second.compareAndSet(current, now)) {
+                count.set(0); // Racing callers may be counted in either second; close enough for sampling
+            }
+            int seen = count.incrementAndGet();
+            return seen <= perSecond || (seen - perSecond) % sampleRate == 0;
+        }
+    }
+}
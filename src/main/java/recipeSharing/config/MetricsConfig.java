@@ -0,0 +1,66 @@
+package recipeSharing.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import recipeSharing.util.Bulkhead;
+
+// Meters beyond what Actuator records on its own (http.server.requests, spring.data.repository.invocations,
+// mongodb.driver.commands, logback.events); JWT and BCrypt timings are recorded in JWTService and TimedPasswordEncoder
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public PayloadSizeMetrics payloadSizeMetrics(MeterRegistry meterRegistry) {
+        return new PayloadSizeMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> payloadSizeValveCustomizer(PayloadSizeMetrics payloadSizeMetrics) {
+        return factory -> factory.addContextValves(new PayloadSizeValve(payloadSizeMetrics));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactivePayloadSizeFilter reactivePayloadSizeFilter(PayloadSizeMetrics payloadSizeMetrics) {
+        return new ReactivePayloadSizeFilter(payloadSizeMetrics);
+    }
+
+    @Bean
+    public MeterBinder logSamplingMetrics() {
+        return registry -> FunctionCounter.builder("logging.sampled.out", LogSamplingFilter.class, type -> LogSamplingFilter.getSampledOut())
+                .description("Log calls dropped by per-message-type sampling")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(@Qualifier("mongoBulkhead") Bulkhead mongoBulkhead) {
+        return registry -> bind(mongoBulkhead, registry);
+    }
+
+    private static void bind(Bulkhead bulkhead, MeterRegistry registry) {
+        Gauge.builder("bulkhead.in.use", bulkhead, Bulkhead::getInUse)
+                .description("Permits currently held")
+                .tag("bulkhead", bulkhead.getName())
+                .register(registry);
+        Gauge.builder("bulkhead.limit", bulkhead, Bulkhead::getLimit)
+                .tag("bulkhead", bulkhead.getName())
+                .register(registry);
+        Gauge.builder("bulkhead.queued", bulkhead, Bulkhead::getQueueLength)
+                .description("Callers waiting for a permit")
+                .tag("bulkhead", bulkhead.getName())
+                .register(registry);
+        FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                .description("Callers turned away after waiting too long for a permit")
+                .tag("bulkhead", bulkhead.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,119 @@
+package recipeSharing.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import recipeSharing.bean.ResponseDTO;
+import recipeSharing.util.Bulkhead;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+// Holds a Mongo bulkhead permit for the whole of each request that reads or writes Mongo, including the
+// async part of streamed responses; when none frees up within maxWait the request is answered 503
+// instead of queueing inside the driver
+public class MongoBulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoBulkheadFilter.class);
+
+    private static final List<String> MONGO_PATHS = List.of("/recipes/**", "/categories/**", "/users/**");
+
+    // Answered from the in-memory indexes and snapshots
+    private static final List<String> IN_MEMORY_PATHS = List.of("/recipes/search", "/recipes/search/stats",
+            "/recipes/cost/**", "/recipes/cheapest", "/recipes/can-cook");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Bulkhead bulkhead;
+    private final Duration maxWait;
+    private final ObjectMapper objectMapper;
+
+    public MongoBulkheadFilter(Bulkhead bulkhead, Duration maxWait, ObjectMapper objectMapper) {
+        this.bulkhead = bulkhead;
+        this.maxWait = maxWait;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (MONGO_PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path))) {
+            return true;
+        }
+        if (request.getMethod().equals("GET") && path.startsWith("/categories/")) {
+            return true; // Every category read is served from CategoryService's snapshot
+        }
+        return IN_MEMORY_PATHS.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(maxWait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            logger.warn("Mongo bulkhead full ({} in use), rejecting {} {}", bulkhead.getInUse(), request.getMethod(), request.getRequestURI());
+            reject(response);
+            return;
+        }
+        boolean releaseLater = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streamed bodies keep reading their cursor after this returns; release when they finish
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                releaseLater = true;
+            }
+        } finally {
+            if (!releaseLater) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    private class ReleaseOnComplete implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkhead.release(); // Also follows a timeout or error
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ResponseDTO<Void> responseDTO = new ResponseDTO<>();
+        responseDTO.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        responseDTO.setMessage("Server busy, retry shortly");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), responseDTO);
+    }
+}
@@ -0,0 +1,77 @@
+package recipeSharing.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Request and response body sizes per endpoint, as http.server.request.size and
+ * http.server.response.size tagged with method and uri (the route pattern, as on
+ * http.server.requests). The summaries for an endpoint are registered the first time it is seen
+ * and found again with two map lookups, so recording allocates nothing after that.
+ */
+public class PayloadSizeMetrics {
+
+    static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    // uri -> method -> {request, response}
+    private final ConcurrentMap<String, ConcurrentMap<String, DistributionSummary[]>> summaries = new ConcurrentHashMap<>();
+
+    public PayloadSizeMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // A negative size means unknown and is not recorded
+    public void record(String method, String uri, long requestBytes, long responseBytes) {
+        DistributionSummary[] pair = summariesFor(method(method), uri == null ? UNKNOWN : uri);
+        if (requestBytes >= 0) {
+            pair[0].record(requestBytes);
+        }
+        if (responseBytes >= 0) {
+            pair[1].record(responseBytes);
+        }
+    }
+
+    private DistributionSummary[] summariesFor(String method, String uri) {
+        ConcurrentMap<String, DistributionSummary[]> byMethod = summaries.get(uri);
+        if (byMethod == null) {
+            byMethod = summaries.computeIfAbsent(uri, key -> new ConcurrentHashMap<>());
+        }
+        DistributionSummary[] pair = byMethod.get(method);
+        if (pair == null) {
+            pair = byMethod.computeIfAbsent(method, key -> new DistributionSummary[]{
+                    summary("http.server.request.size", "Request body size", key, uri),
+                    summary("http.server.response.size", "Response body size", key, uri)});
+        }
+        return pair;
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    // Clients choose the method string, so anything non-standard shares one tag value
+    private static String method(String method) {
+        switch (method) {
+            case "GET":
+            case "HEAD":
+            case "POST":
+            case "PUT":
+            case "PATCH":
+            case "DELETE":
+            case "OPTIONS":
+                return method;
+            default:
+                return "OTHER";
+        }
+    }
+}
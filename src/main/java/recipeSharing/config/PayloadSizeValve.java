@@ -0,0 +1,47 @@
+package recipeSharing.config;
+
+import jakarta.servlet.ServletException;
+import org.apache.catalina.AccessLog;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Feeds PayloadSizeMetrics from the byte counts Tomcat already keeps for its access log, so response
+// sizes are after compression. Tomcat calls log() once a response is complete, including async ones
+// (SSE, streamed pages and exports), so no request or response wrapping is needed.
+public class PayloadSizeValve extends ValveBase implements AccessLog {
+
+    private final PayloadSizeMetrics payloadSizeMetrics;
+
+    public PayloadSizeValve(PayloadSizeMetrics payloadSizeMetrics) {
+        super(true);
+        this.payloadSizeMetrics = payloadSizeMetrics;
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        getNext().invoke(request, response);
+    }
+
+    @Override
+    public void log(Request request, Response response, long time) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // A body the application never read (e.g. a rejected upload) still counts at its declared length
+        long requestBytes = Math.max(request.getContentLengthLong(), request.getCoyoteRequest().getBytesRead());
+        payloadSizeMetrics.record(request.getMethod(), pattern != null ? pattern.toString() : PayloadSizeMetrics.UNKNOWN,
+                requestBytes, response.getBytesWritten(false));
+    }
+
+    @Override
+    public void setRequestAttributesEnabled(boolean requestAttributesEnabled) {
+        // Only reads the route pattern attribute, which Spring MVC always sets
+    }
+
+    @Override
+    public boolean getRequestAttributesEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package recipeSharing.config;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// WebFlux counterpart of PayloadSizeValve: Netty keeps no per-request byte counts, so the response
+// body is counted as it is written. Request sizes come from Content-Length.
+public class ReactivePayloadSizeFilter implements WebFilter {
+
+    private final PayloadSizeMetrics payloadSizeMetrics;
+
+    public ReactivePayloadSizeFilter(PayloadSizeMetrics payloadSizeMetrics) {
+        this.payloadSizeMetrics = payloadSizeMetrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        CountingResponse response = new CountingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    String uri = pattern instanceof PathPattern ? ((PathPattern) pattern).getPatternString() : PayloadSizeMetrics.UNKNOWN;
+                    payloadSizeMetrics.record(exchange.getRequest().getMethod().name(), uri,
+                            exchange.getRequest().getHeaders().getContentLength(), response.bytes);
+                });
+    }
+
+    private static class CountingResponse extends ServerHttpResponseDecorator {
+
+        // Written from one signal at a time, read after completion
+        private volatile long bytes;
+
+        CountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::count));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).doOnNext(this::count)));
+        }
+
+        private void count(DataBuffer buffer) {
+            bytes += buffer.readableByteCount();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package recipeSharing.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import recipeSharing.controller.ReactiveAuthHandler;
+import recipeSharing.controller.ReactiveCategoryHandler;
+import recipeSharing.controller.ReactiveRecipeHandler;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+// Routes of the "reactive" profile, mirroring the MVC controllers' paths
+@Configuration
+@Profile("reactive")
+public class ReactiveRouterConfig {
+
+    // Recipe ids are ObjectIds; the pattern keeps /recipes/{id} off /recipes/search, /recipes/cheapest and the
+    // other annotated endpoints that still run in this mode
+    private static final String RECIPE_ID = "{id:[0-9a-fA-F]{24}}";
+
+    @Bean
+    public RouterFunction<ServerResponse> recipeRoutes(ReactiveRecipeHandler handler) {
+        return route()
+                .POST("/recipes/create", handler::createRecipe)
+                .GET("/recipes/all", handler::getAllRecipes)
+                .GET("/recipes/favorites", handler::getFavoriteRecipes)
+                .GET("/recipes/user/{username}", handler::getRecipesByUsername)
+                .GET("/recipes/" + RECIPE_ID, handler::getRecipeById)
+                .PUT("/recipes/favorite/{id}", handler::toggleFavorite)
+                .PUT("/recipes/update/{id}", updateBody(), handler::updateRecipe)
+                .PATCH("/recipes/update/{id}", updateBody(), handler::updateRecipe)
+                .DELETE("/recipes/delete/{id}", handler::deleteRecipe)
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> categoryRoutes(ReactiveCategoryHandler handler) {
+        return route()
+                .POST("/categories/create", handler::createCategory)
+                .GET("/categories/all", handler::getAllCategories)
+                .GET("/categories/counts", handler::getCategoryCounts)
+                .GET("/categories/{id}", handler::getCategoryById)
+                .PUT("/categories/update/{id}", handler::updateCategory)
+                .DELETE("/categories/delete/{id}", handler::deleteCategory)
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> userRoutes(ReactiveAuthHandler handler) {
+        return route()
+                .POST("/users/register", handler::registerUser)
+                .POST("/users/login", handler::loginUser)
+                .GET("/users/logout", handler::logout)
+                .build();
+    }
+
+    // Netty rather than Tomcat's reactive adapter, which Boot would pick since Tomcat is on the classpath too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    private static RequestPredicate updateBody() {
+        return RequestPredicates.contentType(MediaType.APPLICATION_JSON, MediaType.valueOf("application/merge-patch+json"));
+    }
+}
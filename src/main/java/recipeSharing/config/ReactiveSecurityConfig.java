@@ -0,0 +1,59 @@
+package recipeSharing.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+// WebFlux counterpart of SecurityConfig and CorsConfig; handlers check the JWT themselves, as the controllers do
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(csrf -> csrf.disable()) // Consider enabling CSRF protection in production
+                .httpBasic(basic -> basic.disable())
+                .formLogin(form -> form.disable())
+                .logout(logout -> logout.disable()) // ReactiveAuthHandler.logout revokes the token
+                .authorizeExchange(auth -> auth
+                        .matchers(EndpointRequest.toAnyEndpoint()).permitAll() // Only served on the internal management port
+                        .pathMatchers(HttpMethod.POST, "/users/register", "/users/login", "/users/logout", "/recipes/create", "/recipes/cost/batch", "/categories/create").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/users/logout", "/recipes/user/{username}", "/recipes/{id}", "/recipes/all", "/recipes/cost/{id}", "/recipes/cheapest", "/recipes/search", "/recipes/search/stats", "/recipes/can-cook", "/recipes/favorites", "/categories/all", "/categories/counts", "/categories/{id}").permitAll()
+                        .pathMatchers(HttpMethod.PUT, "/recipes/update/{id}", "/recipes/favorite/{id}", "/categories/update/{id}").permitAll()
+                        .pathMatchers(HttpMethod.PATCH, "/recipes/update/{id}").permitAll()
+                        .pathMatchers(HttpMethod.DELETE, "/recipes/delete/{id}", "/categories/delete/{id}").permitAll()
+                        .anyExchange().authenticated())
+                .build();
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
+    }
+
+    @Bean
+    public CorsWebFilter corsWebFilter() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowCredentials(true);
+        config.addAllowedOrigin("http://localhost:3000");
+        config.addAllowedOrigin("http://172.20.10.3:3000");
+        config.addAllowedHeader("*");
+        config.addAllowedMethod("*");
+        source.registerCorsConfiguration("/**", config);
+        return new CorsWebFilter(source);
+    }
+}
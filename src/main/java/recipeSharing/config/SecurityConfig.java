@@ -1,8 +1,11 @@
 package recipeSharing.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -17,15 +20,18 @@ import recipeSharing.service.AuthUserDetailsService;
 import recipeSharing.service.JWTService;
 
 @Configuration
+@Profile("!reactive") // ReactiveSecurityConfig takes over under the "reactive" profile
 @EnableWebSecurity
 public class SecurityConfig {
 
     private final AuthUserDetailsService authUserDetailsService;
     private final JWTService jwtService;
+    private final MeterRegistry meterRegistry;
 
-    public SecurityConfig(AuthUserDetailsService authUserDetailsService, JWTService jwtService) {
+    public SecurityConfig(AuthUserDetailsService authUserDetailsService, JWTService jwtService, MeterRegistry meterRegistry) {
         this.authUserDetailsService = authUserDetailsService;
         this.jwtService = jwtService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -33,10 +39,12 @@ public class SecurityConfig {
         return httpSecurity
                 .csrf(csrf -> csrf.disable()) // Consider enabling CSRF protection in production
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(HttpMethod.POST, "/users/register", "/users/login", "/users/logout", "/recipes/create").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/recipes/user/{username}", "/recipes/{id}", "/recipes/all", "/groups/all", "/prices").permitAll()
-                        .requestMatchers(HttpMethod.PUT, "/recipes/update/{id}","/recipes/favorite/${id}").permitAll()
-                        .requestMatchers(HttpMethod.DELETE, "/recipes/delete/{id}").permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll() // Only served on the internal management port
+                        .requestMatchers(HttpMethod.POST, "/users/register", "/users/login", "/users/logout", "/recipes/create", "/recipes/cost/batch", "/recipes/bulk", "/categories/create").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/recipes/user/{username}", "/recipes/{id}", "/recipes/all", "/recipes/cost/{id}", "/recipes/cheapest", "/recipes/search", "/recipes/search/stats", "/recipes/can-cook", "/recipes/favorites", "/recipes/export", "/categories/all", "/categories/counts", "/categories/{id}", "/prices", "/prices/stream", "/images/{hash}", "/images/{hash}/{variant}").permitAll()
+                        .requestMatchers(HttpMethod.PUT, "/recipes/update/{id}", "/recipes/favorite/{id}", "/categories/update/{id}").permitAll()
+                        .requestMatchers(HttpMethod.PATCH, "/recipes/update/{id}").permitAll()
+                        .requestMatchers(HttpMethod.DELETE, "/recipes/delete/{id}", "/categories/delete/{id}").permitAll()
                         .anyRequest().authenticated()) // All other endpoints require authentication
                 .userDetailsService(authUserDetailsService) // Custom UserDetailsService
                 .logout(logout -> logout
@@ -63,7 +71,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
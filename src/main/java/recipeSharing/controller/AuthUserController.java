@@ -2,33 +2,36 @@ package recipeSharing.controller;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import recipeSharing.bean.LoginDTO;
 import recipeSharing.bean.ResponseDTO;
 import recipeSharing.bean.UserRegistrationRequest;
+import recipeSharing.bean.UserView;
 import recipeSharing.entity.AuthUser;
+import recipeSharing.mapper.UserMapper;
 import recipeSharing.repository.AuthUserRepository;
+import recipeSharing.service.AuthPrincipalService;
+import recipeSharing.service.ImageStoreService;
 import recipeSharing.service.JWTService;
 
 import javax.validation.Valid;
 import java.io.IOException;
 import java.util.Base64;
-import java.util.Date;
 import java.util.Map;
-import java.util.Optional;
 
 @CrossOrigin(origins = "http://172.20.10.3:3000")
 @RestController
+@Profile("!reactive") // ReactiveAuthHandler serves these paths under the "reactive" profile
 @RequestMapping("/users")
 public class AuthUserController {
 
@@ -38,12 +41,18 @@ public class AuthUserController {
     private final PasswordEncoder passwordEncoder;
     private final JWTService jwtService;  // JWT utility class
     private final AuthenticationManager authenticationManager;
+    private final ImageStoreService imageStoreService;
+    private final AuthPrincipalService authPrincipalService;
+    private final UserMapper userMapper;
 
-    public AuthUserController(AuthUserRepository authUserRepository, PasswordEncoder passwordEncoder, JWTService jwtService, AuthenticationManager authenticationManager) {
+    public AuthUserController(AuthUserRepository authUserRepository, PasswordEncoder passwordEncoder, JWTService jwtService, AuthenticationManager authenticationManager, ImageStoreService imageStoreService, AuthPrincipalService authPrincipalService, UserMapper userMapper) {
         this.authUserRepository = authUserRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authenticationManager = authenticationManager;
+        this.imageStoreService = imageStoreService;
+        this.authPrincipalService = authPrincipalService;
+        this.userMapper = userMapper;
     }
 
     /*// Register new user by validating and saving their details
@@ -103,14 +112,23 @@ public class AuthUserController {
 
     @CrossOrigin(origins = "*") // Adjust origins as necessary
     @PostMapping("/register")
-    public ResponseEntity<ResponseDTO<AuthUser>> registerUser(
-            @RequestParam("username") String username,
-            @RequestParam("email") String email,
-            @RequestParam("password") String password,
-            @RequestParam("birthday") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date birthday,
-            @RequestParam(value = "image", required = false) String base64Image) {
+    public ResponseEntity<ResponseDTO<UserView>> registerUser(@ModelAttribute UserRegistrationRequest userRequest) {
 
-        ResponseDTO<AuthUser> responseDTO = new ResponseDTO<>();
+        ResponseDTO<UserView> responseDTO = new ResponseDTO<>();
+        String username = userRequest.getUsername();
+
+        // Bound from form fields, as before; all but the image are required
+        if (username == null || userRequest.getEmail() == null || userRequest.getPassword() == null
+                || userRequest.getBirthday() == null) {
+            responseDTO.setStatusCode(400);
+            responseDTO.setMessage("username, email, password and birthday are required");
+            return new ResponseEntity<>(responseDTO, HttpStatus.BAD_REQUEST);
+        }
+        if (username.startsWith("$")) {
+            responseDTO.setStatusCode(400);
+            responseDTO.setMessage(UserRegistrationRequest.INVALID_USERNAME);
+            return new ResponseEntity<>(responseDTO, HttpStatus.BAD_REQUEST);
+        }
 
         try {
             logger.info("Attempting to register user: {}", username);
@@ -123,21 +141,35 @@ public class AuthUserController {
                 return new ResponseEntity<>(responseDTO, HttpStatus.BAD_REQUEST);
             }
 
-            // Create and save new user with the base64 image string if provided
-            AuthUser newUser = AuthUser.builder()
-                    .username(username)
-                    .email(email)
-                    .password(passwordEncoder.encode(password))
-                    .birthday(birthday)
-                    .image(base64Image) // Save the base64 string in the image field
-                    .active(true)
-                    .build();
-            authUserRepository.save(newUser);
+            // Move the base64 image into the blob store and keep only its reference on the user
+            String imageReference;
+            try {
+                imageReference = imageStoreService.storeInline(userRequest.getImage());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid image data for user: {}", username);
+                responseDTO.setStatusCode(400);
+                responseDTO.setMessage("Error processing image");
+                return new ResponseEntity<>(responseDTO, HttpStatus.BAD_REQUEST);
+            }
+
+            // Create and save new user with the image reference if provided
+            AuthUser newUser = userMapper.toEntity(userRequest);
+            newUser.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+            newUser.setImage(imageReference);
+            try {
+                authUserRepository.save(newUser);
+            } catch (DuplicateKeyException e) {
+                // Lost the race against a concurrent registration of the same name; the unique index decides
+                logger.warn("Username already exists: {}", username);
+                responseDTO.setStatusCode(400);
+                responseDTO.setMessage("Username already exists");
+                return new ResponseEntity<>(responseDTO, HttpStatus.BAD_REQUEST);
+            }
 
             logger.info("User registered successfully: {}", username);
             responseDTO.setStatusCode(201);
             responseDTO.setMessage("User registered successfully");
-            responseDTO.setData(newUser);
+            responseDTO.setData(userMapper.toView(newUser));
             return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
 
         } catch (Exception e) {
@@ -162,26 +194,16 @@ public class AuthUserController {
             );
 
             if (authentication.isAuthenticated()) {
-                // Obtain UserDetails from Authentication object
-                UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-
-                // Fetch AuthUser from the database using the username from UserDetails
-                Optional<AuthUser> optionalAuthUser = authUserRepository.findByUsername(userDetails.getUsername());
-                if (!optionalAuthUser.isPresent()) {
-                    logger.warn("User not found in database: {}", userDetails.getUsername());
-                    responseDTO.setStatusCode(404);
-                    responseDTO.setMessage("User not found");
-                    return new ResponseEntity<>(responseDTO, HttpStatus.NOT_FOUND);
-                }
-
-                AuthUser authUser = optionalAuthUser.get();
+                // The principal is the AuthUser AuthUserDetailsService just loaded, so no second lookup is needed
+                AuthUser authUser = (AuthUser) authentication.getPrincipal();
+                authPrincipalService.cache(authUser); // Warm the principal cache for the requests that follow
                 String token = jwtService.generateToken(authUser);  // Generate JWT token
 
                 logger.info("User logged in successfully: {}", loginDTO.getUsername());
                 responseDTO.setStatusCode(200);
                 responseDTO.setMessage("Login successful");
                 responseDTO.setData(Map.of(
-                        "user", authUser,
+                        "user", userMapper.toView(authUser),
                         "token", token
                 ));
                 return new ResponseEntity<>(responseDTO, HttpStatus.OK);
@@ -3,19 +3,27 @@ package recipeSharing.controller;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.bean.WriteResult;
 import recipeSharing.entity.Category;
-import recipeSharing.entity.AuthUser;
+import recipeSharing.service.CategoryCountService;
 import recipeSharing.service.CategoryService;
-import recipeSharing.service.JWTService;
-import recipeSharing.repository.AuthUserRepository;
+import recipeSharing.service.CategorySnapshot;
+import recipeSharing.service.AuthPrincipalService;
+import recipeSharing.util.ETagUtils;
 
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive") // ReactiveCategoryHandler serves these paths under the "reactive" profile
 @RequestMapping("/categories")
 public class CategoryController {
 
@@ -25,16 +33,17 @@ public class CategoryController {
     private CategoryService categoryService;
 
     @Autowired
-    private JWTService jwtService;
+    private AuthPrincipalService authPrincipalService;
 
     @Autowired
-    private AuthUserRepository authUserRepository;
+    private CategoryCountService categoryCountService;
+
+    // Clients may keep responses but must revalidate them with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     // Authenticate the user using JWT token
-    private Optional<AuthUser> authenticateUser(String token) {
-        String username = jwtService.extractUsername(token);
-        return authUserRepository.findByUsername(username)
-                .filter(user -> jwtService.isTokenValid(token, user));
+    private Optional<AuthPrincipal> authenticateUser(String token) {
+        return authPrincipalService.authenticate(token);
     }
 
     // 1. Create a new category
@@ -43,7 +52,7 @@ public class CategoryController {
             @RequestBody Category category,
             @RequestHeader("Authorization") String token) {
 
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
 
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized category creation attempt");
@@ -60,9 +69,11 @@ public class CategoryController {
 
     // 2. Get all categories
     @GetMapping("/all")
-    public ResponseEntity<List<Category>> getAllCategories(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
 
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized access attempt to fetch all categories");
@@ -71,10 +82,32 @@ public class CategoryController {
 
         logger.info("Request received to fetch all categories by user: {}", userOptional.get().getUsername());
 
-        List<Category> categories = categoryService.getAllCategories();
+        // Served entirely from memory: the body was serialized when the snapshot was loaded
+        CategorySnapshot snapshot = categoryService.getSnapshot();
+        if (ETagUtils.matchesIfNoneMatch(ifNoneMatch, snapshot.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag()).cacheControl(REVALIDATE).build();
+        }
+
+        logger.info("Fetched {} categories", snapshot.getCategories().size());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.getETag())
+                .cacheControl(REVALIDATE)
+                .body(snapshot.getJson());
+    }
+
+    // Number of recipes in each category
+    @GetMapping("/counts")
+    public ResponseEntity<Map<String, Integer>> getCategoryCounts(@RequestHeader("Authorization") String token) {
+
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
+
+        if (!userOptional.isPresent()) {
+            logger.warn("Unauthorized access attempt to fetch category counts");
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
 
-        logger.info("Fetched {} categories", categories.size());
-        return new ResponseEntity<>(categories, HttpStatus.OK);
+        return new ResponseEntity<>(categoryCountService.getCounts(), HttpStatus.OK);
     }
 
     // 3. Get a category by ID
@@ -83,7 +116,7 @@ public class CategoryController {
             @PathVariable String id,
             @RequestHeader("Authorization") String token) {
 
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
 
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized access attempt to fetch category with ID: {}", id);
@@ -96,7 +129,11 @@ public class CategoryController {
 
         if (category.isPresent()) {
             logger.info("Category found with ID: {}", id);
-            return new ResponseEntity<>(category.get(), HttpStatus.OK);
+            // Spring answers a matching If-None-Match with 304 from this ETag
+            return ResponseEntity.ok()
+                    .eTag(ETagUtils.forVersion(category.get().getVersion()))
+                    .cacheControl(REVALIDATE)
+                    .body(category.get());
         } else {
             logger.warn("Category not found with ID: {}", id);
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -108,9 +145,10 @@ public class CategoryController {
     public ResponseEntity<Category> updateCategory(
             @PathVariable String id,
             @RequestBody Category category,
-            @RequestHeader("Authorization") String token) {
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
 
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized category update attempt with ID: {}", id);
@@ -119,14 +157,26 @@ public class CategoryController {
 
         logger.info("Request received to update category with ID: {} by user: {}", id, userOptional.get().getUsername());
 
-        Category updatedCategory = categoryService.updateCategory(id, category);
+        Long expectedVersion;
+        try {
+            expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unusable If-Match for category ID: {}: {}", id, ifMatch);
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
 
-        if (updatedCategory != null) {
-            logger.info("Category updated successfully with ID: {}", updatedCategory.getId());
-            return new ResponseEntity<>(updatedCategory, HttpStatus.OK);
-        } else {
-            logger.warn("Failed to update category. Category not found with ID: {}", id);
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        WriteResult<Category> result = categoryService.updateCategory(id, expectedVersion, category);
+
+        switch (result.getStatus()) {
+            case OK:
+                logger.info("Category updated successfully with ID: {}", id);
+                return ResponseEntity.ok().eTag(ETagUtils.forVersion(result.getValue().getVersion())).body(result.getValue());
+            case PRECONDITION_FAILED:
+                logger.warn("Stale update rejected for category ID: {} (If-Match {})", id, ifMatch);
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            default:
+                logger.warn("Failed to update category. Category not found with ID: {}", id);
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
@@ -136,7 +186,7 @@ public class CategoryController {
             @PathVariable String id,
             @RequestHeader("Authorization") String token) {
 
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
 
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized category deletion attempt with ID: {}", id);
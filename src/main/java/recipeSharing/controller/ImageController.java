@@ -0,0 +1,136 @@
+package recipeSharing.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import recipeSharing.service.BlobStore;
+import recipeSharing.service.FileSystemBlobStore;
+import recipeSharing.service.ImageDerivativeService;
+import recipeSharing.util.ImageUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+@RestController
+@Profile("!reactive") // Servlet only: streams blobs through the servlet response
+@RequestMapping("/images")
+public class ImageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageController.class);
+
+    // Tomcat request attributes that hand the file to the connector for sendfile(2)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Content never changes for a given hash, so clients may cache it for a year
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final BlobStore blobStore;
+    private final ImageDerivativeService imageDerivativeService;
+
+    public ImageController(BlobStore blobStore, ImageDerivativeService imageDerivativeService) {
+        this.blobStore = blobStore;
+        this.imageDerivativeService = imageDerivativeService;
+    }
+
+    @GetMapping("/{hash}")
+    public void getImage(@PathVariable String hash, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!FileSystemBlobStore.isValidHash(hash)) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (notModified("\"" + hash + "\"", request, response)) {
+            return;
+        }
+
+        Optional<Resource> blob = blobStore.get(hash);
+        if (!blob.isPresent()) {
+            logger.warn("Image not found with hash: {}", hash);
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        send(blob.get(), request, response);
+    }
+
+    @GetMapping("/{hash}/{variant}")
+    public void getImageVariant(@PathVariable String hash, @PathVariable String variant,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!FileSystemBlobStore.isValidHash(hash) || !ImageDerivativeService.Variant.fromName(variant).isPresent()) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        Optional<Resource> blob = blobStore.getVariant(hash, variant);
+        if (blob.isPresent()) {
+            if (!notModified("\"" + hash + "-" + variant + "\"", request, response)) {
+                send(blob.get(), request, response);
+            }
+            return;
+        }
+
+        if (!blobStore.exists(hash)) {
+            logger.warn("Image not found with hash: {}", hash);
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // Not generated yet, dropped under load or not possible for this format: serve the original
+        // for now, and don't let clients cache the redirect so they pick up the rendition once it exists
+        imageDerivativeService.enqueue(hash);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+        response.setHeader(HttpHeaders.LOCATION, ImageUtils.toImageReference(hash));
+    }
+
+    // Set the caching headers; true (with 304 sent) when the client already has this content
+    private static boolean notModified(String etag, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    private static void send(Resource blob, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        File file = blob.getFile();
+        long length = file.length();
+
+        byte[] header = new byte[12];
+        int read;
+        try (InputStream in = blob.getInputStream()) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        response.setContentType(ImageUtils.detectContentType(header, read));
+        response.setContentLengthLong(length);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Let the connector stream the file straight from the page cache to the socket
+            request.setAttribute(SENDFILE_FILENAME, file.getAbsolutePath());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            channel.transferTo(0, length, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+}
@@ -1,29 +1,66 @@
 package recipeSharing.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import recipeSharing.bean.PriceDeltaDTO;
 import recipeSharing.service.PriceListService;
+import recipeSharing.service.PriceSnapshot;
+import recipeSharing.service.PriceStreamService;
 
 import java.util.Map;
+import java.util.Set;
 
 
 @RestController
+@Profile("!reactive") // Servlet only: the price stream is built on SseEmitter
 public class PriceListController {
 
+    private static final String PRICE_VERSION_HEADER = "X-Price-Version";
+
     @Autowired
     private PriceListService priceListService;
 
+    @Autowired
+    private PriceStreamService priceStreamService;
+
     @GetMapping("/prices")
-    public Map<String, String> getPrices() {
-        return priceListService.getItemPrices();
+    public ResponseEntity<?> getPrices(@RequestParam(value = "since", required = false) Long since) {
+        PriceSnapshot snapshot = priceListService.getSnapshot();
+        String version = String.valueOf(snapshot.getVersion());
+        if (since == null) {
+            return ResponseEntity.ok().header(PRICE_VERSION_HEADER, version).body(snapshot.formatAll());
+        }
+        // Only the items that changed after the version the client already has
+        return ResponseEntity.ok().header(PRICE_VERSION_HEADER, version)
+                .body(new PriceDeltaDTO(snapshot.getVersion(), snapshot.formatChangedSince(since)));
+    }
+
+    // Live prices as Server-Sent Events: a full snapshot first, then deltas, optionally for chosen items only
+    @GetMapping(value = "/prices/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPrices(@RequestParam(value = "items", required = false) Set<String> items) {
+        SseEmitter emitter = priceStreamService.subscribe(items);
+        if (emitter == null) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return ResponseEntity.ok(emitter);
     }
 
     @PostMapping("/prices")
-    public String updateItemPrice(@RequestBody Map<String, String> newPrices) {
-        newPrices.forEach((item, price) -> priceListService.getItemPrices().put(item, price));
-        return "Prices updated successfully!";
+    public ResponseEntity<String> updateItemPrice(@RequestBody Map<String, String> newPrices) {
+        try {
+            priceListService.updateItemPrices(newPrices);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok("Prices updated successfully!");
     }
 }
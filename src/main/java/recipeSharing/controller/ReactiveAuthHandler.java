@@ -0,0 +1,174 @@
+package recipeSharing.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FormFieldPart;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import recipeSharing.bean.LoginDTO;
+import recipeSharing.bean.ResponseDTO;
+import recipeSharing.bean.UserRegistrationRequest;
+import recipeSharing.bean.UserView;
+import recipeSharing.entity.AuthUser;
+import recipeSharing.mapper.UserMapper;
+import recipeSharing.repository.ReactiveAuthUserRepository;
+import recipeSharing.service.ImageStoreService;
+import recipeSharing.service.JWTService;
+import recipeSharing.service.ReactiveAuthService;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+// WebFlux version of AuthUserController: same paths, form fields, status codes and bodies
+@Component
+@Profile("reactive")
+public class ReactiveAuthHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthHandler.class);
+
+    private final ReactiveAuthUserRepository authUserRepository;
+    private final ReactiveAuthService authService;
+    private final JWTService jwtService;
+    private final ImageStoreService imageStoreService;
+    private final UserMapper userMapper;
+
+    public ReactiveAuthHandler(ReactiveAuthUserRepository authUserRepository, ReactiveAuthService authService,
+                               JWTService jwtService, ImageStoreService imageStoreService, UserMapper userMapper) {
+        this.authUserRepository = authUserRepository;
+        this.authService = authService;
+        this.jwtService = jwtService;
+        this.imageStoreService = imageStoreService;
+        this.userMapper = userMapper;
+    }
+
+    // Form fields username, email, password, birthday (yyyy-MM-dd) and optional image, url-encoded or multipart
+    public Mono<ServerResponse> registerUser(ServerRequest request) {
+        return formFields(request).flatMap(form -> {
+            UserRegistrationRequest userRequest = new UserRegistrationRequest();
+            userRequest.setUsername(form.getFirst("username"));
+            userRequest.setEmail(form.getFirst("email"));
+            userRequest.setPassword(form.getFirst("password"));
+            userRequest.setImage(form.getFirst("image"));
+            try {
+                userRequest.setBirthday(Date.from(LocalDate.parse(form.getFirst("birthday")).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+            } catch (DateTimeParseException | NullPointerException e) {
+                return error(HttpStatus.BAD_REQUEST, "Invalid birthday");
+            }
+            String username = userRequest.getUsername();
+            if (username == null || userRequest.getEmail() == null || userRequest.getPassword() == null) {
+                return error(HttpStatus.BAD_REQUEST, "username, email, password and birthday are required");
+            }
+            if (username.startsWith("$")) {
+                return error(HttpStatus.BAD_REQUEST, UserRegistrationRequest.INVALID_USERNAME);
+            }
+
+            logger.info("Attempting to register user: {}", username);
+            // Optional because a user without an image stores null, which a Mono cannot carry
+            Mono<ServerResponse> register = Mono.fromCallable(() -> Optional.ofNullable(imageStoreService.storeInline(userRequest.getImage())))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .zipWith(authService.encodePassword(userRequest.getPassword()))
+                    .flatMap(stored -> {
+                        AuthUser newUser = userMapper.toEntity(userRequest);
+                        newUser.setPassword(stored.getT2());
+                        newUser.setImage(stored.getT1().orElse(null));
+                        return authUserRepository.save(newUser);
+                    })
+                    .flatMap(newUser -> {
+                        logger.info("User registered successfully: {}", username);
+                        ResponseDTO<UserView> responseDTO = new ResponseDTO<>();
+                        responseDTO.setStatusCode(201);
+                        responseDTO.setMessage("User registered successfully");
+                        responseDTO.setData(userMapper.toView(newUser));
+                        return ServerResponse.status(HttpStatus.CREATED).bodyValue(responseDTO);
+                    })
+                    .onErrorResume(IllegalArgumentException.class, e -> {
+                        logger.warn("Invalid image data for user: {}", username);
+                        return error(HttpStatus.BAD_REQUEST, "Error processing image");
+                    })
+                    .onErrorResume(DuplicateKeyException.class, e -> {
+                        // Lost the race against a concurrent registration of the same name; the unique index decides
+                        logger.warn("Username already exists: {}", username);
+                        return error(HttpStatus.BAD_REQUEST, "Username already exists");
+                    });
+
+            return authUserRepository.existsByUsername(username).flatMap(exists -> {
+                if (exists) {
+                    logger.warn("Username already exists: {}", username);
+                    return error(HttpStatus.BAD_REQUEST, "Username already exists");
+                }
+                return register;
+            });
+        });
+    }
+
+    public Mono<ServerResponse> loginUser(ServerRequest request) {
+        return request.bodyToMono(LoginDTO.class).flatMap(loginDTO -> {
+            logger.info("Attempting to login user: {}", loginDTO.getUsername());
+            if (loginDTO.getUsername() == null || loginDTO.getPassword() == null) {
+                return error(HttpStatus.BAD_REQUEST, "username and password are required");
+            }
+            return authService.login(loginDTO.getUsername(), loginDTO.getPassword())
+                    .flatMap(authUser -> {
+                        String token = jwtService.generateToken(authUser);
+                        logger.info("User logged in successfully: {}", loginDTO.getUsername());
+                        ResponseDTO<Map<String, Object>> responseDTO = new ResponseDTO<>();
+                        responseDTO.setStatusCode(200);
+                        responseDTO.setMessage("Login successful");
+                        responseDTO.setData(Map.of(
+                                "user", userMapper.toView(authUser),
+                                "token", token
+                        ));
+                        return ServerResponse.ok().bodyValue(responseDTO);
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        logger.warn("Invalid credentials for user: {}", loginDTO.getUsername());
+                        return error(HttpStatus.UNAUTHORIZED, "Invalid credentials");
+                    }));
+        });
+    }
+
+    public Mono<ServerResponse> logout(ServerRequest request) {
+        String token = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        if (token == null) {
+            return ServerResponse.badRequest().build();
+        }
+        return authService.logout(token.replace("Bearer ", ""))
+                .then(ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue("Logged out successfully"));
+    }
+
+    // The MVC controller binds @RequestParam from either encoding, so accept both here too
+    private static Mono<MultiValueMap<String, String>> formFields(ServerRequest request) {
+        MediaType contentType = request.headers().contentType().orElse(MediaType.APPLICATION_FORM_URLENCODED);
+        if (!MediaType.MULTIPART_FORM_DATA.includes(contentType)) {
+            return request.formData();
+        }
+        return request.multipartData().map(parts -> {
+            MultiValueMap<String, String> fields = new LinkedMultiValueMap<>();
+            parts.forEach((name, values) -> values.stream()
+                    .filter(FormFieldPart.class::isInstance)
+                    .forEach(part -> fields.add(name, ((FormFieldPart) part).value())));
+            return fields;
+        });
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        ResponseDTO<AuthUser> responseDTO = new ResponseDTO<>();
+        responseDTO.setStatusCode(status.value());
+        responseDTO.setMessage(message);
+        return ServerResponse.status(status).bodyValue(responseDTO);
+    }
+}
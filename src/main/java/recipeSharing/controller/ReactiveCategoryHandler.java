@@ -0,0 +1,174 @@
+package recipeSharing.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.entity.Category;
+import recipeSharing.service.CategoryCountService;
+import recipeSharing.service.ReactiveAuthService;
+import recipeSharing.service.ReactiveCategoryService;
+import recipeSharing.util.ETagUtils;
+
+// WebFlux version of CategoryController: same paths, status codes, headers and bodies
+@Component
+@Profile("reactive")
+public class ReactiveCategoryHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCategoryHandler.class);
+
+    // Clients may keep responses but must revalidate them with If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final ReactiveCategoryService categoryService;
+    private final ReactiveAuthService authService;
+    private final CategoryCountService categoryCountService;
+
+    public ReactiveCategoryHandler(ReactiveCategoryService categoryService, ReactiveAuthService authService,
+                                   CategoryCountService categoryCountService) {
+        this.categoryService = categoryService;
+        this.authService = authService;
+        this.categoryCountService = categoryCountService;
+    }
+
+    private Mono<AuthPrincipal> authenticateUser(ServerRequest request) {
+        return authService.authenticate(request.headers().firstHeader(HttpHeaders.AUTHORIZATION));
+    }
+
+    public Mono<ServerResponse> createCategory(ServerRequest request) {
+        return authenticateUser(request)
+                .flatMap(user -> request.bodyToMono(Category.class)
+                        .flatMap(categoryService::addCategory)
+                        .flatMap(created -> {
+                            logger.info("Category created successfully with ID: {}", created.getId());
+                            return ServerResponse.status(HttpStatus.CREATED).bodyValue(created);
+                        }))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Unauthorized category creation attempt");
+                    return unauthorized();
+                }));
+    }
+
+    // Served entirely from memory: the body was serialized when the snapshot was loaded
+    public Mono<ServerResponse> getAllCategories(ServerRequest request) {
+        return authenticateUser(request)
+                .flatMap(user -> categoryService.getSnapshot().flatMap(snapshot -> {
+                    if (ETagUtils.matchesIfNoneMatch(ifNoneMatch(request), snapshot.getETag())) {
+                        return notModified(snapshot.getETag());
+                    }
+                    return ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .eTag(snapshot.getETag())
+                            .cacheControl(REVALIDATE)
+                            .bodyValue(snapshot.getJson());
+                }))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Unauthorized access attempt to fetch all categories");
+                    return unauthorized();
+                }));
+    }
+
+    public Mono<ServerResponse> getCategoryCounts(ServerRequest request) {
+        return authenticateUser(request)
+                .flatMap(user -> ServerResponse.ok().bodyValue(categoryCountService.getCounts()))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Unauthorized access attempt to fetch category counts");
+                    return unauthorized();
+                }));
+    }
+
+    public Mono<ServerResponse> getCategoryById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return authenticateUser(request)
+                .flatMap(user -> categoryService.getCategoryById(id)
+                        .flatMap(category -> {
+                            String etag = ETagUtils.forVersion(category.getVersion());
+                            if (ETagUtils.matchesIfNoneMatch(ifNoneMatch(request), etag)) {
+                                return notModified(etag);
+                            }
+                            return ServerResponse.ok().eTag(etag).cacheControl(REVALIDATE).bodyValue(category);
+                        })
+                        .switchIfEmpty(Mono.defer(() -> {
+                            logger.warn("Category not found with ID: {}", id);
+                            return ServerResponse.notFound().build();
+                        })))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Unauthorized access attempt to fetch category with ID: {}", id);
+                    return unauthorized();
+                }));
+    }
+
+    public Mono<ServerResponse> updateCategory(ServerRequest request) {
+        String id = request.pathVariable("id");
+        String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+        return authenticateUser(request)
+                .flatMap(user -> {
+                    Long expectedVersion;
+                    try {
+                        expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Unusable If-Match for category ID: {}: {}", id, ifMatch);
+                        return ServerResponse.status(HttpStatus.PRECONDITION_FAILED).build();
+                    }
+                    return request.bodyToMono(Category.class)
+                            .flatMap(category -> categoryService.updateCategory(id, expectedVersion, category))
+                            .flatMap(result -> {
+                                switch (result.getStatus()) {
+                                    case OK:
+                                        logger.info("Category updated successfully with ID: {}", id);
+                                        return ServerResponse.ok()
+                                                .eTag(ETagUtils.forVersion(result.getValue().getVersion()))
+                                                .bodyValue(result.getValue());
+                                    case PRECONDITION_FAILED:
+                                        logger.warn("Stale update rejected for category ID: {} (If-Match {})", id, ifMatch);
+                                        return ServerResponse.status(HttpStatus.PRECONDITION_FAILED).build();
+                                    default:
+                                        logger.warn("Failed to update category. Category not found with ID: {}", id);
+                                        return ServerResponse.notFound().build();
+                                }
+                            });
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Unauthorized category update attempt with ID: {}", id);
+                    return unauthorized();
+                }));
+    }
+
+    public Mono<ServerResponse> deleteCategory(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return authenticateUser(request)
+                .flatMap(user -> categoryService.getCategoryById(id)
+                        .flatMap(category -> categoryService.deleteCategory(id).then(Mono.defer(() -> {
+                            logger.info("Category deleted successfully with ID: {}", id);
+                            return ServerResponse.noContent().build();
+                        })))
+                        .switchIfEmpty(Mono.defer(() -> {
+                            logger.warn("Failed to delete category. Category not found with ID: {}", id);
+                            return ServerResponse.notFound().build();
+                        })))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Unauthorized category deletion attempt with ID: {}", id);
+                    return unauthorized();
+                }));
+    }
+
+    private static String ifNoneMatch(ServerRequest request) {
+        return request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+    }
+
+    private static Mono<ServerResponse> notModified(String etag) {
+        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    private static Mono<ServerResponse> unauthorized() {
+        return ServerResponse.status(HttpStatus.UNAUTHORIZED).build();
+    }
+}
@@ -0,0 +1,284 @@
+package recipeSharing.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.bean.CursorPage;
+import recipeSharing.bean.RecipeDTO;
+import recipeSharing.bean.ResponseDTO;
+import recipeSharing.bean.WriteResult;
+import recipeSharing.entity.Recipe;
+import recipeSharing.mapper.RecipeMapper;
+import recipeSharing.service.EntityVersionService;
+import recipeSharing.service.ReactiveAuthService;
+import recipeSharing.service.ReactiveRecipeService;
+import recipeSharing.util.ETagUtils;
+
+
+// WebFlux version of RecipeController: same paths, status codes, headers and bodies
+@Component
+@Profile("reactive")
+public class ReactiveRecipeHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRecipeHandler.class);
+
+    // Responses carry the user's favorite flags, so only the client may cache them, and must revalidate
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final ReactiveRecipeService recipeService;
+    private final ReactiveAuthService authService;
+    private final EntityVersionService entityVersionService;
+    private final RecipeMapper recipeMapper;
+
+    public ReactiveRecipeHandler(ReactiveRecipeService recipeService, ReactiveAuthService authService,
+                                 EntityVersionService entityVersionService, RecipeMapper recipeMapper) {
+        this.recipeService = recipeService;
+        this.authService = authService;
+        this.entityVersionService = entityVersionService;
+        this.recipeMapper = recipeMapper;
+    }
+
+    private Mono<AuthPrincipal> authenticateUser(ServerRequest request) {
+        return authService.authenticate(request.headers().firstHeader(HttpHeaders.AUTHORIZATION));
+    }
+
+    public Mono<ServerResponse> createRecipe(ServerRequest request) {
+        return authenticateUser(request)
+                .flatMap(user -> request.bodyToMono(RecipeDTO.class).flatMap(recipeDTO -> {
+                    recipeDTO.setCreatedBy(user.getUsername());
+                    return recipeService.addRecipe(recipeMapper.toEntity(recipeDTO))
+                            .flatMap(created -> {
+                                logger.info("Recipe created successfully with ID: {}", created.getId());
+                                ResponseDTO<Recipe> responseDTO = new ResponseDTO<>();
+                                responseDTO.setData(created);
+                                responseDTO.setMessage("Recipe created successfully");
+                                responseDTO.setStatusCode(HttpStatus.CREATED.value());
+                                return ServerResponse.status(HttpStatus.CREATED).bodyValue(responseDTO);
+                            })
+                            .onErrorResume(IllegalArgumentException.class, e -> {
+                                logger.warn("Invalid image data in recipe created by user: {}", user.getUsername());
+                                return error(HttpStatus.BAD_REQUEST, "Invalid image data");
+                            });
+                }))
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.UNAUTHORIZED, "Invalid or expired token")));
+    }
+
+    public Mono<ServerResponse> toggleFavorite(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return authenticateUser(request)
+                .flatMap(user -> recipeService.toggleFavorite(id, user.getUsername())
+                        .flatMap(recipe -> {
+                            logger.info("Successfully toggled favorite for recipe ID: {}", id);
+                            return ServerResponse.ok().bodyValue(recipe);
+                        })
+                        .switchIfEmpty(Mono.defer(() -> {
+                            logger.warn("Recipe not found with ID: {}", id);
+                            return error(HttpStatus.NOT_FOUND, "Recipe not found");
+                        })))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Unauthorized favorite toggle attempt for recipe ID: {}", id);
+                    return error(HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+                }));
+    }
+
+    public Mono<ServerResponse> getFavoriteRecipes(ServerRequest request) {
+        String cursor = request.queryParam("cursor").orElse(null);
+        return authenticateUser(request)
+                .flatMap(user -> {
+                    String etag = entityVersionService.recipesETag();
+                    if (ETagUtils.matchesIfNoneMatch(ifNoneMatch(request), etag)) {
+                        return notModified(etag);
+                    }
+                    return Mono.defer(() -> recipeService.getFavoritesPage(user.getUsername(), cursor, size(request)))
+                            .flatMap(page -> ServerResponse.ok().eTag(etag).cacheControl(REVALIDATE).bodyValue(page))
+                            .onErrorResume(IllegalArgumentException.class, e -> {
+                                logger.warn("Invalid cursor supplied for favorite recipes: {}", cursor);
+                                return ServerResponse.badRequest().build();
+                            });
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.status(HttpStatus.UNAUTHORIZED).build()));
+    }
+
+    public Mono<ServerResponse> getRecipeById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return authenticateUser(request)
+                .flatMap(user -> {
+                    // Answer from the in-memory version when the client already holds it
+                    String knownETag = entityVersionService.knownRecipeETag(id);
+                    if (knownETag != null && ETagUtils.matchesIfNoneMatch(ifNoneMatch(request), knownETag)) {
+                        return notModified(knownETag);
+                    }
+                    return recipeService.getRecipeById(id, user.getUsername())
+                            .flatMap(recipe -> {
+                                ResponseDTO<Recipe> responseDTO = new ResponseDTO<>();
+                                responseDTO.setData(recipe);
+                                responseDTO.setMessage("Recipe retrieved successfully");
+                                return ServerResponse.ok()
+                                        .eTag(ETagUtils.forVersion(recipe.getVersion()))
+                                        .cacheControl(REVALIDATE)
+                                        .bodyValue(responseDTO);
+                            })
+                            .switchIfEmpty(Mono.defer(() -> {
+                                logger.warn("Recipe not found with ID: {}", id);
+                                return error(HttpStatus.NOT_FOUND, "Recipe not found");
+                            }));
+                })
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.UNAUTHORIZED, "Invalid or expired token")));
+    }
+
+    public Mono<ServerResponse> getAllRecipes(ServerRequest request) {
+        String cursor = request.queryParam("cursor").orElse(null);
+        return authenticateUser(request)
+                .flatMap(user -> {
+                    String etag = entityVersionService.recipesETag();
+                    if (ETagUtils.matchesIfNoneMatch(ifNoneMatch(request), etag)) {
+                        return notModified(etag);
+                    }
+                    return Mono.defer(() -> recipeService.getRecipePage(cursor, size(request),
+                                    request.queryParam("category").orElse(null), request.queryParam("createdBy").orElse(null)))
+                            .flatMap(page -> recipeService.markFavorites(page.getItems(), user.getUsername()).thenReturn(page))
+                            .flatMap(page -> ServerResponse.ok().eTag(etag).cacheControl(REVALIDATE).bodyValue(page))
+                            .onErrorResume(IllegalArgumentException.class, e -> {
+                                logger.warn("Invalid cursor supplied for all recipes: {}", cursor);
+                                return ServerResponse.badRequest().build();
+                            });
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.status(HttpStatus.UNAUTHORIZED).build()));
+    }
+
+    public Mono<ServerResponse> getRecipesByUsername(ServerRequest request) {
+        String username = request.pathVariable("username");
+        String cursor = request.queryParam("cursor").orElse(null);
+        return authenticateUser(request)
+                .flatMap(user -> {
+                    String etag = entityVersionService.recipesETag();
+                    if (ETagUtils.matchesIfNoneMatch(ifNoneMatch(request), etag)) {
+                        return notModified(etag);
+                    }
+                    return Mono.defer(() -> recipeService.getRecipePage(cursor, size(request), request.queryParam("category").orElse(null), username))
+                            .flatMap(page -> recipeService.markFavorites(page.getItems(), user.getUsername()).thenReturn(page))
+                            .flatMap(page -> {
+                                if (page.getItems().isEmpty()) {
+                                    logger.warn("No recipes found for user: {}", username);
+                                    return error(HttpStatus.NOT_FOUND, "No recipes found for this user");
+                                }
+                                ResponseDTO<CursorPage<Recipe>> responseDTO = new ResponseDTO<>();
+                                responseDTO.setData(page);
+                                responseDTO.setMessage("Recipes retrieved successfully");
+                                return ServerResponse.ok().eTag(etag).cacheControl(REVALIDATE).bodyValue(responseDTO);
+                            })
+                            .onErrorResume(IllegalArgumentException.class, e -> {
+                                logger.warn("Invalid cursor supplied for user {}: {}", username, cursor);
+                                return error(HttpStatus.BAD_REQUEST, "Invalid cursor");
+                            });
+                })
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.UNAUTHORIZED, "Invalid or expired token")));
+    }
+
+    // Accepts a JSON Merge Patch with PUT or PATCH, like RecipeController.updateRecipe
+    public Mono<ServerResponse> updateRecipe(ServerRequest request) {
+        String id = request.pathVariable("id");
+        String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+        return authenticateUser(request)
+                .flatMap(user -> {
+                    Long expectedVersion;
+                    try {
+                        expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("Unusable If-Match for recipe ID: {}: {}", id, ifMatch);
+                        return error(HttpStatus.PRECONDITION_FAILED, "Recipe has been modified");
+                    }
+                    return request.bodyToMono(JsonNode.class)
+                            .defaultIfEmpty(NullNode.getInstance())
+                            .flatMap(patch -> recipeService.updateRecipe(id, user.getUsername(), expectedVersion, patch))
+                            .flatMap(result -> updateResponse(id, user, ifMatch, result))
+                            .onErrorResume(IllegalArgumentException.class, e -> {
+                                logger.warn("Invalid patch for recipe ID: {}: {}", id, e.getMessage());
+                                return error(HttpStatus.BAD_REQUEST, e.getMessage());
+                            });
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Unauthorized recipe update attempt with invalid or expired token for recipe ID: {}", id);
+                    return error(HttpStatus.UNAUTHORIZED, "Invalid or expired token");
+                }));
+    }
+
+    private Mono<ServerResponse> updateResponse(String id, AuthPrincipal user, String ifMatch, WriteResult<Recipe> result) {
+        switch (result.getStatus()) {
+            case NOT_FOUND:
+                logger.warn("Recipe not found with ID: {}", id);
+                return error(HttpStatus.NOT_FOUND, "Recipe not found");
+            case FORBIDDEN:
+                logger.warn("Unauthorized update attempt on recipe ID: {} by user: {}", id, user.getUsername());
+                return error(HttpStatus.FORBIDDEN, "You are not authorized to update this recipe");
+            case PRECONDITION_FAILED:
+                logger.warn("Stale update rejected for recipe ID: {} (If-Match {})", id, ifMatch);
+                return error(HttpStatus.PRECONDITION_FAILED, "Recipe has been modified");
+            default:
+                break;
+        }
+        Recipe updatedRecipe = result.getValue();
+        ResponseDTO<Recipe> responseDTO = new ResponseDTO<>();
+        responseDTO.setData(updatedRecipe);
+        responseDTO.setMessage("Recipe updated successfully");
+        responseDTO.setStatusCode(HttpStatus.OK.value());
+        logger.info("Recipe updated successfully with ID: {}", updatedRecipe.getId());
+        return ServerResponse.ok().eTag(ETagUtils.forVersion(updatedRecipe.getVersion())).bodyValue(responseDTO);
+    }
+
+    public Mono<ServerResponse> deleteRecipe(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return authenticateUser(request)
+                .flatMap(user -> recipeService.deleteRecipe(id, user.getUsername()).flatMap(result -> {
+                    switch (result.getStatus()) {
+                        case NOT_FOUND:
+                            logger.warn("Recipe not found with ID: {}", id);
+                            return ServerResponse.notFound().build();
+                        case FORBIDDEN:
+                            logger.warn("Unauthorized delete attempt on recipe ID: {} by user: {}", id, user.getUsername());
+                            return ServerResponse.status(HttpStatus.FORBIDDEN).build();
+                        case OK:
+                            logger.info("Recipe deleted successfully: {}", id);
+                            return ServerResponse.noContent().build();
+                        default:
+                            // Only reachable if a concurrent write landed between the delete and the re-read
+                            logger.warn("Recipe ID: {} changed concurrently with its deletion", id);
+                            return ServerResponse.status(HttpStatus.CONFLICT).build();
+                    }
+                }))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Unauthorized recipe deletion attempt with invalid or expired token for recipe ID: {}", id);
+                    return ServerResponse.status(HttpStatus.UNAUTHORIZED).build();
+                }));
+    }
+
+    private static String ifNoneMatch(ServerRequest request) {
+        return request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+    }
+
+    // A malformed size fails with NumberFormatException, answered like a bad cursor
+    private static Integer size(ServerRequest request) {
+        return request.queryParam("size").map(Integer::valueOf).orElse(null);
+    }
+
+    private static Mono<ServerResponse> notModified(String etag) {
+        return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        ResponseDTO<Recipe> responseDTO = new ResponseDTO<>();
+        responseDTO.setStatusCode(status.value());
+        responseDTO.setMessage(message);
+        return ServerResponse.status(status).bodyValue(responseDTO);
+    }
+}
@@ -0,0 +1,86 @@
+package recipeSharing.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.bean.BulkExportSummaryDTO;
+import recipeSharing.service.AuthPrincipalService;
+import recipeSharing.service.RecipeBulkService;
+
+import java.io.IOException;
+import java.util.Optional;
+
+@RestController
+@Profile("!reactive") // Servlet only: streams through the servlet request and response
+@RequestMapping("/recipes")
+public class RecipeBulkController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeBulkController.class);
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final RecipeBulkService recipeBulkService;
+    private final AuthPrincipalService authPrincipalService;
+
+    public RecipeBulkController(RecipeBulkService recipeBulkService, AuthPrincipalService authPrincipalService) {
+        this.recipeBulkService = recipeBulkService;
+        this.authPrincipalService = authPrincipalService;
+    }
+
+    private Optional<AuthPrincipal> authenticateUser(String token) {
+        return authPrincipalService.authenticate(token);
+    }
+
+    // Body is NDJSON, one recipe per line; the response is NDJSON too, one result per line and a summary last.
+    // The body is read straight from the request stream, so it is never buffered whole.
+    @PostMapping(value = "/bulk", consumes = {NDJSON, MediaType.TEXT_PLAIN_VALUE})
+    public void importRecipes(@RequestHeader("Authorization") String token,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
+        if (!userOptional.isPresent()) {
+            logger.warn("Unauthorized bulk import attempt with invalid or expired token");
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        logger.info("Bulk import started by user: {}", userOptional.get().getUsername());
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        recipeBulkService.importRecipes(request.getInputStream(), userOptional.get().getUsername(), response.getOutputStream());
+    }
+
+    // Streams recipes as NDJSON from a Mongo cursor, ending with a summary line that carries the count;
+    // pass createdBy to export a single user's recipes. Written on the request thread like the import,
+    // so no async request timeout can cut a long export off.
+    @GetMapping(value = "/export", produces = NDJSON)
+    public void exportRecipes(@RequestParam(value = "createdBy", required = false) String createdBy,
+                              @RequestHeader("Authorization") String token,
+                              HttpServletResponse response) throws IOException {
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
+        if (!userOptional.isPresent()) {
+            logger.warn("Unauthorized export attempt with invalid or expired token");
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        logger.info("Recipe export started by user: {}", userOptional.get().getUsername());
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes.ndjson\"");
+        BulkExportSummaryDTO summary = recipeBulkService.exportRecipes(createdBy, response.getOutputStream());
+        logger.info("Recipe export by {} finished: {} recipes", userOptional.get().getUsername(), summary.getRecipes());
+    }
+}
@@ -1,25 +1,40 @@
 package recipeSharing.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.bean.CursorPage;
+import recipeSharing.bean.WriteResult;
 import recipeSharing.bean.RecipeDTO;
 import recipeSharing.bean.ResponseDTO;
-import recipeSharing.entity.AuthUser;
 import recipeSharing.entity.Recipe;
-import recipeSharing.repository.AuthUserRepository;
-import recipeSharing.service.JWTService;
+import recipeSharing.mapper.RecipeMapper;
+import recipeSharing.service.AuthPrincipalService;
+import recipeSharing.service.EntityVersionService;
 import recipeSharing.service.RecipeService;
+import recipeSharing.util.CursorPageWriter;
+import recipeSharing.util.CursorUtils;
+import recipeSharing.util.ETagUtils;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive") // ReactiveRecipeHandler serves these paths under the "reactive" profile
 @RequestMapping("/recipes")
 public class RecipeController {
 
@@ -29,25 +44,32 @@ public class RecipeController {
     private RecipeService recipeService;
 
     @Autowired
-    private JWTService jwtService;
+    private AuthPrincipalService authPrincipalService;
 
     @Autowired
-    private AuthUserRepository authUserRepository;
+    private EntityVersionService entityVersionService;
 
-    private Optional<AuthUser> authenticateUser(String token) {
-        String username = jwtService.extractUsername(token);
-        return authUserRepository.findByUsername(username)
-                .filter(user -> jwtService.isTokenValid(token, user));
+    @Autowired
+    private RecipeMapper recipeMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Responses carry the user's favorite flags, so only the client may cache them, and must revalidate
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private Optional<AuthPrincipal> authenticateUser(String token) {
+        return authPrincipalService.authenticate(token);
     }
 
     @PostMapping("/create")
     public ResponseEntity<ResponseDTO<Recipe>> createRecipe(
             @RequestBody RecipeDTO recipeDTO, // Directly map the request body to RecipeDTO
-            @RequestHeader("Authorization") String token) throws JsonProcessingException {
+            @RequestHeader("Authorization") String token) throws IOException {
 
         ResponseDTO<Recipe> responseDTO = new ResponseDTO<>();
 
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
         if (!userOptional.isPresent()) {
             return createErrorResponse(responseDTO, HttpStatus.UNAUTHORIZED, "Invalid or expired token");
         }
@@ -55,34 +77,28 @@ public class RecipeController {
         // Set the createdBy field directly
         recipeDTO.setCreatedBy(userOptional.get().getUsername());
 
-        Recipe recipe = convertToEntity(recipeDTO);
+        Recipe recipe = recipeMapper.toEntity(recipeDTO); // imageUrl still holds the Base64 image at this point
 
-        // Assuming imageUrl is the field to store Base64 string
-        if (recipeDTO.getImageUrl() != null) {
-            recipe.setImageUrl(recipeDTO.getImageUrl()); // Set the Base64 image string
+        // Save the recipe to the database, moving the Base64 image into the blob store
+        Recipe createdRecipe;
+        try {
+            createdRecipe = recipeService.addRecipe(recipe);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid image data in recipe created by user: {}", userOptional.get().getUsername());
+            return createErrorResponse(responseDTO, HttpStatus.BAD_REQUEST, "Invalid image data");
         }
-
-        // Save the recipe to the database
-        Recipe createdRecipe = recipeService.addRecipe(recipe);
         responseDTO.setData(createdRecipe);
         responseDTO.setMessage("Recipe created successfully");
         responseDTO.setStatusCode(HttpStatus.CREATED.value());
 
-        logger.info("Recipe created successfully: {}", createdRecipe);
+        logger.info("Recipe created successfully with ID: {}", createdRecipe.getId());
         return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
     }
 
-    private Recipe convertToEntity(RecipeDTO recipeDTO) {
-        Recipe recipe = new Recipe();
-        BeanUtils.copyProperties(recipeDTO, recipe);
-
-        // If there's an image URL (Base64), set it in the Recipe entity
-        if (recipeDTO.getImageUrl() != null) {
-            recipe.setImageUrl(recipeDTO.getImageUrl()); // Assuming imageUrl field in Recipe
-        }
-
-        return recipe;
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
     }
+
     private ResponseEntity<ResponseDTO<Recipe>> createErrorResponse(ResponseDTO<Recipe> responseDTO, HttpStatus status, String message) {
         responseDTO.setStatusCode(status.value());
         responseDTO.setMessage(message);
@@ -96,25 +112,63 @@ public class RecipeController {
         try {
             logger.info("Attempting to toggle favorite for recipe ID: {}", id);
 
-            Optional<AuthUser> userOptional = authenticateUser(token);
+            Optional<AuthPrincipal> userOptional = authenticateUser(token);
             if (!userOptional.isPresent()) {
-                logger.warn("Unauthorized access attempt with token: {}", token);
+                logger.warn("Unauthorized favorite toggle attempt for recipe ID: {}", id);
                 return createErrorResponse(responseDTO, HttpStatus.UNAUTHORIZED, "Invalid or expired token");
             }
 
-            Recipe updatedRecipe = recipeService.toggleFavorite(id);
+            Optional<Recipe> updatedRecipe = recipeService.toggleFavorite(id, userOptional.get().getUsername());
+            if (!updatedRecipe.isPresent()) {
+                logger.warn("Recipe not found with ID: {}", id);
+                return createErrorResponse(responseDTO, HttpStatus.NOT_FOUND, "Recipe not found");
+            }
             logger.info("Successfully toggled favorite for recipe ID: {}", id);
-            return ResponseEntity.ok(updatedRecipe);
+            return ResponseEntity.ok(updatedRecipe.get());
         } catch (Exception e) {
             logger.error("An error occurred while toggling favorite for recipe ID: {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred while processing your request");
         }
     }
 
+    @GetMapping("/favorites")
+    public ResponseEntity<CursorPage<Recipe>> getFavoriteRecipes(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
+
+        if (!userOptional.isPresent()) {
+            logger.warn("Unauthorized access attempt with invalid or expired token for favorite recipes");
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+
+        // Read the change counter before querying so a concurrent write can only make the tag older, never newer
+        String etag = entityVersionService.recipesETag();
+        if (ETagUtils.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        CursorPage<Recipe> page;
+        try {
+            page = recipeService.getFavoritesPage(userOptional.get().getUsername(), cursor, size);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor supplied for favorite recipes: {}", cursor);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        logger.info("Favorite recipe page of {} retrieved for user: {}", page.getSize(), userOptional.get().getUsername());
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(page);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ResponseDTO<Recipe>> getRecipeById(@PathVariable String id, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<ResponseDTO<Recipe>> getRecipeById(
+            @PathVariable String id,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         ResponseDTO<Recipe> responseDTO = new ResponseDTO<>();
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
 
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized access attempt with invalid or expired token for recipe ID: {}", id);
@@ -123,12 +177,21 @@ public class RecipeController {
             return new ResponseEntity<>(responseDTO, HttpStatus.UNAUTHORIZED);
         }
 
-        Optional<Recipe> recipeOptional = recipeService.getRecipeById(id);
+        // Answer from the in-memory version when the client already holds it
+        String knownETag = entityVersionService.knownRecipeETag(id);
+        if (knownETag != null && ETagUtils.matchesIfNoneMatch(ifNoneMatch, knownETag)) {
+            return notModified(knownETag);
+        }
+
+        Optional<Recipe> recipeOptional = recipeService.getRecipeById(id, userOptional.get().getUsername());
         if (recipeOptional.isPresent()) {
             responseDTO.setData(recipeOptional.get());
             responseDTO.setMessage("Recipe retrieved successfully");
-            logger.info("Recipe retrieved successfully: {}", recipeOptional.get());
-            return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+            logger.info("Recipe retrieved successfully with ID: {}", id);
+            return ResponseEntity.ok()
+                    .eTag(ETagUtils.forVersion(recipeOptional.get().getVersion()))
+                    .cacheControl(REVALIDATE)
+                    .body(responseDTO);
         } else {
             logger.warn("Recipe not found with ID: {}", id);
             responseDTO.setStatusCode(HttpStatus.NOT_FOUND.value());
@@ -137,99 +200,145 @@ public class RecipeController {
         }
     }
 
+    // Streamed from a Mongo cursor: the page is written one recipe at a time and never held in memory
     @GetMapping("/all")
-    public ResponseEntity<List<Recipe>> getAllRecipes(@RequestHeader("Authorization") String token) {
-        Optional<AuthUser> userOptional = authenticateUser(token);
+    public ResponseEntity<Void> getAllRecipes(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "createdBy", required = false) String createdBy,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
 
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized access attempt with invalid or expired token for all recipes");
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
 
-        List<Recipe> recipes = recipeService.getAllRecipes();
-        logger.info("All recipes retrieved successfully for user: {}", userOptional.get().getUsername());
-        return new ResponseEntity<>(recipes, HttpStatus.OK);
+        String etag = entityVersionService.recipesETag();
+        if (ETagUtils.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        String afterId;
+        try {
+            afterId = CursorUtils.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor supplied for all recipes: {}", cursor);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        String username = userOptional.get().getUsername();
+        int pageSize = recipeService.pageSize(size);
+        try (Stream<Recipe> recipes = recipeService.streamRecipePage(afterId, pageSize, category, createdBy, username)) {
+            return writeJson(response, etag, generator -> {
+                int written = CursorPageWriter.writePage(generator, recipes.iterator(), pageSize, Recipe::getId);
+                logger.info("Recipe page of {} retrieved successfully for user: {}", written, username);
+            });
+        }
     }
 
-    @PutMapping("/update/{id}")
+    // Accepts a JSON Merge Patch; PUT with a full recipe body keeps working as a patch of every field
+    @RequestMapping(value = "/update/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH},
+            consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
     public ResponseEntity<ResponseDTO<Recipe>> updateRecipe(
             @PathVariable String id,
-            @RequestBody Recipe recipe,
-            @RequestHeader("Authorization") String token) {
+            @RequestBody JsonNode patch,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         ResponseDTO<Recipe> responseDTO = new ResponseDTO<>();
 
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized recipe update attempt with invalid or expired token for recipe ID: {}", id);
-            responseDTO.setStatusCode(HttpStatus.UNAUTHORIZED.value());
-            responseDTO.setMessage("Invalid or expired token");
-            return new ResponseEntity<>(responseDTO, HttpStatus.UNAUTHORIZED);
+            return createErrorResponse(responseDTO, HttpStatus.UNAUTHORIZED, "Invalid or expired token");
         }
 
-        Optional<Recipe> recipeOptional = recipeService.getRecipeById(id);
-        if (!recipeOptional.isPresent()) {
-            logger.warn("Recipe not found with ID: {}", id);
-            responseDTO.setStatusCode(HttpStatus.NOT_FOUND.value());
-            responseDTO.setMessage("Recipe not found");
-            return new ResponseEntity<>(responseDTO, HttpStatus.NOT_FOUND);
+        Long expectedVersion;
+        try {
+            expectedVersion = ETagUtils.parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unusable If-Match for recipe ID: {}: {}", id, ifMatch);
+            return createErrorResponse(responseDTO, HttpStatus.PRECONDITION_FAILED, "Recipe has been modified");
         }
 
-        if (!recipeOptional.get().getCreatedBy().equals(userOptional.get().getUsername())) {
-            logger.warn("Unauthorized update attempt on recipe ID: {} by user: {}", id, userOptional.get().getUsername());
-            responseDTO.setStatusCode(HttpStatus.FORBIDDEN.value());
-            responseDTO.setMessage("You are not authorized to update this recipe");
-            return new ResponseEntity<>(responseDTO, HttpStatus.FORBIDDEN);
+        WriteResult<Recipe> result;
+        try {
+            result = recipeService.updateRecipe(id, userOptional.get().getUsername(), expectedVersion, patch);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid patch for recipe ID: {}: {}", id, e.getMessage());
+            return createErrorResponse(responseDTO, HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IOException e) {
+            logger.error("Failed to store image while updating recipe ID: {}", id, e);
+            return createErrorResponse(responseDTO, HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update recipe");
         }
 
-        Recipe updatedRecipe = recipeService.updateRecipe(id, recipe);
-        if (updatedRecipe == null) {
-            logger.warn("Failed to update recipe with ID: {}", id);
-            responseDTO.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR.value());
-            responseDTO.setMessage("Failed to update recipe");
-            return new ResponseEntity<>(responseDTO, HttpStatus.INTERNAL_SERVER_ERROR);
+        switch (result.getStatus()) {
+            case NOT_FOUND:
+                logger.warn("Recipe not found with ID: {}", id);
+                return createErrorResponse(responseDTO, HttpStatus.NOT_FOUND, "Recipe not found");
+            case FORBIDDEN:
+                logger.warn("Unauthorized update attempt on recipe ID: {} by user: {}", id, userOptional.get().getUsername());
+                return createErrorResponse(responseDTO, HttpStatus.FORBIDDEN, "You are not authorized to update this recipe");
+            case PRECONDITION_FAILED:
+                logger.warn("Stale update rejected for recipe ID: {} (If-Match {})", id, ifMatch);
+                return createErrorResponse(responseDTO, HttpStatus.PRECONDITION_FAILED, "Recipe has been modified");
+            default:
+                break;
         }
 
+        Recipe updatedRecipe = result.getValue();
         responseDTO.setData(updatedRecipe);
         responseDTO.setMessage("Recipe updated successfully");
         responseDTO.setStatusCode(HttpStatus.OK.value());
 
         logger.info("Recipe updated successfully with ID: {}", updatedRecipe.getId());
-        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(ETagUtils.forVersion(updatedRecipe.getVersion())).body(responseDTO);
     }
 
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<Void> deleteRecipe(@PathVariable String id, @RequestHeader("Authorization") String token) {
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
 
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized recipe deletion attempt with invalid or expired token for recipe ID: {}", id);
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
 
-        Optional<Recipe> recipeOptional = recipeService.getRecipeById(id);
-        if (!recipeOptional.isPresent()) {
-            logger.warn("Recipe not found with ID: {}", id);
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-
-        if (!recipeOptional.get().getCreatedBy().equals(userOptional.get().getUsername())) {
-            logger.warn("Unauthorized delete attempt on recipe ID: {} by user: {}", id, userOptional.get().getUsername());
-            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        WriteResult<Void> result = recipeService.deleteRecipe(id, userOptional.get().getUsername());
+        switch (result.getStatus()) {
+            case NOT_FOUND:
+                logger.warn("Recipe not found with ID: {}", id);
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            case FORBIDDEN:
+                logger.warn("Unauthorized delete attempt on recipe ID: {} by user: {}", id, userOptional.get().getUsername());
+                return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+            case OK:
+                logger.info("Recipe deleted successfully: {}", id);
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            default:
+                // Only reachable if a concurrent write landed between the delete and the re-read
+                logger.warn("Recipe ID: {} changed concurrently with its deletion", id);
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
         }
-
-        recipeService.deleteRecipe(id);
-        logger.info("Recipe deleted successfully: {}", id);
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    // Streamed like /all, inside the usual ResponseDTO envelope
     @GetMapping("/user/{username}")
-    public ResponseEntity<ResponseDTO<List<Recipe>>> getRecipesByUsername(
+    public ResponseEntity<?> getRecipesByUsername(
             @PathVariable String username,
-            @RequestHeader("Authorization") String token) {
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestHeader("Authorization") String token,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
 
-        ResponseDTO<List<Recipe>> responseDTO = new ResponseDTO<>();
-        Optional<AuthUser> userOptional = authenticateUser(token);
+        ResponseDTO<CursorPage<Recipe>> responseDTO = new ResponseDTO<>();
+        Optional<AuthPrincipal> userOptional = authenticateUser(token);
 
         if (!userOptional.isPresent()) {
             logger.warn("Unauthorized access attempt with invalid or expired token for user: {}", username);
@@ -238,18 +347,65 @@ public class RecipeController {
             return new ResponseEntity<>(responseDTO, HttpStatus.UNAUTHORIZED);
         }
 
-        List<Recipe> recipes = recipeService.getRecipeByUsername(username);
-        if (!recipes.isEmpty()) {
-            responseDTO.setData(recipes);
-            responseDTO.setMessage("Recipes retrieved successfully");
-            logger.info("Recipes retrieved successfully for user {}: {}", username, recipes);
-            return new ResponseEntity<>(responseDTO, HttpStatus.OK);
-        } else {
+        String etag = entityVersionService.recipesETag();
+        if (ETagUtils.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        String afterId;
+        try {
+            afterId = CursorUtils.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cursor supplied for user {}: {}", username, cursor);
+            responseDTO.setStatusCode(HttpStatus.BAD_REQUEST.value());
+            responseDTO.setMessage("Invalid cursor");
+            return new ResponseEntity<>(responseDTO, HttpStatus.BAD_REQUEST);
+        }
+
+        int pageSize = recipeService.pageSize(size);
+        Stream<Recipe> recipes = recipeService.streamRecipePage(afterId, pageSize, category, username, userOptional.get().getUsername());
+        Iterator<Recipe> iterator = recipes.iterator();
+        if (!iterator.hasNext()) { // Only the first batch is fetched to decide between 200 and 404
+            recipes.close();
             logger.warn("No recipes found for user: {}", username);
             responseDTO.setStatusCode(HttpStatus.NOT_FOUND.value());
             responseDTO.setMessage("No recipes found for this user");
             return new ResponseEntity<>(responseDTO, HttpStatus.NOT_FOUND);
         }
+
+        responseDTO.setStatusCode(HttpStatus.OK.value());
+        responseDTO.setMessage("Recipes retrieved successfully");
+        try (recipes) {
+            return writeJson(response, etag, generator -> {
+                generator.writeStartObject();
+                generator.writeNumberField("statusCode", responseDTO.getStatusCode());
+                generator.writeStringField("message", responseDTO.getMessage());
+                generator.writeFieldName("data");
+                int written = CursorPageWriter.writePage(generator, iterator, pageSize, Recipe::getId);
+                generator.writeEndObject();
+                logger.info("Recipe page of {} retrieved successfully for user {}", written, username);
+            });
+        }
+    }
+
+    private interface JsonBody {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    // Pages are capped at the max page size, so they are written on the request thread like the bulk
+    // import: a StreamingResponseBody would run on the few shared task-executor threads instead of
+    // Tomcat's pool. Returns null, which tells Spring MVC the response is already written.
+    private <T> ResponseEntity<T> writeJson(HttpServletResponse response, String etag, JsonBody body) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        // Leaves the response stream open for the container to complete
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            body.write(generator);
+        }
+        return null;
     }
 }
 
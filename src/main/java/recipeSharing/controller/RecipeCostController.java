@@ -0,0 +1,112 @@
+package recipeSharing.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.bean.RecipeCostDTO;
+import recipeSharing.bean.ResponseDTO;
+import recipeSharing.service.AuthPrincipalService;
+import recipeSharing.service.RecipeCostService;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/recipes")
+public class RecipeCostController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeCostController.class);
+
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_CHEAPEST_LIMIT = 100;
+
+    @Autowired
+    private RecipeCostService recipeCostService;
+
+    @Autowired
+    private AuthPrincipalService authPrincipalService;
+
+    private Optional<AuthPrincipal> authenticateUser(String token) {
+        return authPrincipalService.authenticate(token);
+    }
+
+    // Current cost of one recipe, optionally scaled to a number of servings
+    @GetMapping("/cost/{id}")
+    public ResponseEntity<ResponseDTO<RecipeCostDTO>> getRecipeCost(
+            @PathVariable String id,
+            @RequestParam(value = "servings", required = false) Integer servings,
+            @RequestHeader("Authorization") String token) {
+
+        ResponseDTO<RecipeCostDTO> responseDTO = new ResponseDTO<>();
+        if (!authenticateUser(token).isPresent()) {
+            logger.warn("Unauthorized access attempt for cost of recipe ID: {}", id);
+            responseDTO.setStatusCode(HttpStatus.UNAUTHORIZED.value());
+            responseDTO.setMessage("Invalid or expired token");
+            return new ResponseEntity<>(responseDTO, HttpStatus.UNAUTHORIZED);
+        }
+
+        Optional<RecipeCostDTO> cost = recipeCostService.getCost(id, servings);
+        if (!cost.isPresent()) {
+            logger.warn("No cost available for recipe ID: {}", id);
+            responseDTO.setStatusCode(HttpStatus.NOT_FOUND.value());
+            responseDTO.setMessage("Recipe not found");
+            return new ResponseEntity<>(responseDTO, HttpStatus.NOT_FOUND);
+        }
+
+        responseDTO.setStatusCode(HttpStatus.OK.value());
+        responseDTO.setMessage("Recipe cost retrieved successfully");
+        responseDTO.setData(cost.get());
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
+    // Current costs of many recipes in one call; unknown IDs are left out
+    @PostMapping("/cost/batch")
+    public ResponseEntity<ResponseDTO<List<RecipeCostDTO>>> getRecipeCosts(
+            @RequestBody List<String> ids,
+            @RequestParam(value = "servings", required = false) Integer servings,
+            @RequestHeader("Authorization") String token) {
+
+        ResponseDTO<List<RecipeCostDTO>> responseDTO = new ResponseDTO<>();
+        if (!authenticateUser(token).isPresent()) {
+            logger.warn("Unauthorized access attempt for batch recipe costs");
+            responseDTO.setStatusCode(HttpStatus.UNAUTHORIZED.value());
+            responseDTO.setMessage("Invalid or expired token");
+            return new ResponseEntity<>(responseDTO, HttpStatus.UNAUTHORIZED);
+        }
+
+        if (ids.size() > MAX_BATCH_SIZE) {
+            responseDTO.setStatusCode(HttpStatus.BAD_REQUEST.value());
+            responseDTO.setMessage("At most " + MAX_BATCH_SIZE + " recipes per batch");
+            return new ResponseEntity<>(responseDTO, HttpStatus.BAD_REQUEST);
+        }
+
+        responseDTO.setStatusCode(HttpStatus.OK.value());
+        responseDTO.setMessage("Recipe costs retrieved successfully");
+        responseDTO.setData(recipeCostService.getCosts(ids, servings));
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
+    // Recipes ordered by current total cost, cheapest first
+    @GetMapping("/cheapest")
+    public ResponseEntity<ResponseDTO<List<RecipeCostDTO>>> getCheapestRecipes(
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestHeader("Authorization") String token) {
+
+        ResponseDTO<List<RecipeCostDTO>> responseDTO = new ResponseDTO<>();
+        if (!authenticateUser(token).isPresent()) {
+            logger.warn("Unauthorized access attempt for cheapest recipes");
+            responseDTO.setStatusCode(HttpStatus.UNAUTHORIZED.value());
+            responseDTO.setMessage("Invalid or expired token");
+            return new ResponseEntity<>(responseDTO, HttpStatus.UNAUTHORIZED);
+        }
+
+        responseDTO.setStatusCode(HttpStatus.OK.value());
+        responseDTO.setMessage("Cheapest recipes retrieved successfully");
+        responseDTO.setData(recipeCostService.getCheapest(Math.max(1, Math.min(limit, MAX_CHEAPEST_LIMIT))));
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,111 @@
+package recipeSharing.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.bean.CookableRecipeDTO;
+import recipeSharing.bean.ResponseDTO;
+import recipeSharing.bean.SearchResultDTO;
+import recipeSharing.service.AuthPrincipalService;
+import recipeSharing.service.IngredientMatchService;
+import recipeSharing.service.RecipeSearchService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/recipes")
+public class RecipeSearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeSearchController.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    // Highest page whose offset (page + 1) * size still fits in an int
+    private static final int MAX_PAGE = Integer.MAX_VALUE / MAX_PAGE_SIZE - 1;
+
+    @Autowired
+    private RecipeSearchService recipeSearchService;
+
+    @Autowired
+    private IngredientMatchService ingredientMatchService;
+
+    @Autowired
+    private AuthPrincipalService authPrincipalService;
+
+    private Optional<AuthPrincipal> authenticateUser(String token) {
+        return authPrincipalService.authenticate(token);
+    }
+
+    // Full-text search over title, description, instructions and ingredients, best match first
+    @GetMapping("/search")
+    public ResponseEntity<ResponseDTO<SearchResultDTO>> searchRecipes(
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestHeader("Authorization") String token) {
+
+        ResponseDTO<SearchResultDTO> responseDTO = new ResponseDTO<>();
+        if (!authenticateUser(token).isPresent()) {
+            logger.warn("Unauthorized recipe search attempt");
+            responseDTO.setStatusCode(HttpStatus.UNAUTHORIZED.value());
+            responseDTO.setMessage("Invalid or expired token");
+            return new ResponseEntity<>(responseDTO, HttpStatus.UNAUTHORIZED);
+        }
+
+        if (page < 0 || page > MAX_PAGE || size <= 0) {
+            responseDTO.setStatusCode(HttpStatus.BAD_REQUEST.value());
+            responseDTO.setMessage("Invalid page or size");
+            return new ResponseEntity<>(responseDTO, HttpStatus.BAD_REQUEST);
+        }
+
+        SearchResultDTO result = recipeSearchService.search(query, page, Math.min(size, MAX_PAGE_SIZE));
+        responseDTO.setStatusCode(HttpStatus.OK.value());
+        responseDTO.setMessage("Search completed successfully");
+        responseDTO.setData(result);
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
+    // Recipes that can be cooked with the given ingredients, allowing up to maxMissing missing ones
+    @GetMapping("/can-cook")
+    public ResponseEntity<ResponseDTO<List<CookableRecipeDTO>>> findCookableRecipes(
+            @RequestParam("ingredients") List<String> ingredients,
+            @RequestParam(value = "maxMissing", defaultValue = "0") int maxMissing,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestHeader("Authorization") String token) {
+
+        ResponseDTO<List<CookableRecipeDTO>> responseDTO = new ResponseDTO<>();
+        if (!authenticateUser(token).isPresent()) {
+            logger.warn("Unauthorized cookable recipe lookup attempt");
+            responseDTO.setStatusCode(HttpStatus.UNAUTHORIZED.value());
+            responseDTO.setMessage("Invalid or expired token");
+            return new ResponseEntity<>(responseDTO, HttpStatus.UNAUTHORIZED);
+        }
+
+        if (maxMissing < 0) {
+            responseDTO.setStatusCode(HttpStatus.BAD_REQUEST.value());
+            responseDTO.setMessage("maxMissing must not be negative");
+            return new ResponseEntity<>(responseDTO, HttpStatus.BAD_REQUEST);
+        }
+
+        List<CookableRecipeDTO> recipes = ingredientMatchService.findCookable(ingredients, maxMissing,
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        responseDTO.setStatusCode(HttpStatus.OK.value());
+        responseDTO.setMessage("Cookable recipes retrieved successfully");
+        responseDTO.setData(recipes);
+        return new ResponseEntity<>(responseDTO, HttpStatus.OK);
+    }
+
+    // Search latency percentiles since startup
+    @GetMapping("/search/stats")
+    public ResponseEntity<Map<String, Long>> getSearchStats(@RequestHeader("Authorization") String token) {
+        if (!authenticateUser(token).isPresent()) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return ResponseEntity.ok(recipeSearchService.getLatencyStats());
+    }
+}
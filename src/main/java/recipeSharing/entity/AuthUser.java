@@ -1,8 +1,12 @@
 package recipeSharing.entity;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,14 +19,20 @@ import java.util.UUID;
 @Data
 @Builder
 @Document("user")
+// Mapped through the no-args constructor, so projections that leave out fields (the author lookups) still load
+@AllArgsConstructor
+@NoArgsConstructor
 public class AuthUser implements UserDetails {
 
     @Id
     private String id = UUID.randomUUID().toString();
+    @Indexed(unique = true) // Login lookups, and what makes concurrent registrations of one name safe
     private String username;
     private String email;
+    @ToString.Exclude // BCrypt hash
     private String password;
     private Date birthday;
+    @ToString.Exclude // Blob URL, or a Base64 data URI on users the image migration has not reached
     private String image;
     private boolean active;
 
@@ -0,0 +1,26 @@
+package recipeSharing.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import recipeSharing.util.ImageUtils;
+
+// Denormalized copy of the author embedded in each recipe, so listing recipes never loads users
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorSummary {
+    private String userId;
+    private String username;
+    private String avatarHash; // Blob store hash of the profile image, served at /images/{hash} and /images/{hash}/thumb
+
+    public static AuthorSummary of(AuthUser user) {
+        String image = user.getImage();
+        String avatarHash = ImageUtils.isImageReference(image)
+                ? image.substring(ImageUtils.IMAGE_REFERENCE_PREFIX.length())
+                : null; // No image, or a legacy inline image not yet moved to the blob store
+        return new AuthorSummary(user.getId(), user.getUsername(), avatarHash);
+    }
+}
@@ -2,6 +2,7 @@ package recipeSharing.entity;
 
 import lombok.Builder;
 import lombok.Data;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.persistence.Id;
@@ -13,4 +14,8 @@ public class Category {
     @Id
     private String id;
     private String name;
+
+    // Incremented on every write; exposed as the ETag. Null on documents written before versioning.
+    @Version
+    private Long version;
 }
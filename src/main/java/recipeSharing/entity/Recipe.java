@@ -1,11 +1,18 @@
 package recipeSharing.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import lombok.ToString;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
+import recipeSharing.util.ImageUtils;
 
 import javax.persistence.Id;
 import java.util.List;
@@ -13,26 +20,55 @@ import java.util.List;
 @Data
 @Builder
 @Document(collection = "recipe")
+// Every keyset page filters on one of these fields and sorts by _id descending
+@CompoundIndexes({
+        @CompoundIndex(name = "createdBy_id", def = "{'createdBy': 1, '_id': -1}"),
+        @CompoundIndex(name = "category_id", def = "{'category': 1, '_id': -1}"),
+        @CompoundIndex(name = "favoritedBy_id", def = "{'favoritedBy': 1, '_id': -1}")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 public class Recipe {
     @Id
     private String id;
     private String title;
+    @ToString.Exclude // Free text of any length; kept out of log lines like the fields below
     private String description;
+    @ToString.Exclude
     private String instructions;
     private int servingSize;
     private String createdBy;
 
+    @ToString.Exclude // A Base64 data URI on documents the image migration has not reached
     private String imageUrl;
 
     private String category; // Reference to Category
 
-    @DBRef
-    private AuthUser authUser; // Reference to User
+    private AuthorSummary author; // Embedded copy of the author, kept current from user saves
 
     // Embedded ingredients
+    @ToString.Exclude
     private List<Ingredient> ingredients;
 
+    // Whether the requesting user has favorited this recipe; computed per request, not stored
+    @Transient
     private boolean isFavorite = false;
+
+    // Usernames that favorited this recipe; never serialized and left out of list queries
+    @JsonIgnore
+    @ToString.Exclude // Unbounded
+    private List<String> favoritedBy;
+
+    private int favoriteCount; // Denormalized size of favoritedBy
+
+    // Incremented on every write; exposed as the ETag. Null on documents written before versioning.
+    @Version
+    private Long version;
+
+    // Small rendition for list views; derived from imageUrl, so never stored. Null until the image is in the blob store.
+    // Listed in RecipeService.READ_ONLY_FIELDS so a recipe sent back whole still patches.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getThumbnailUrl() {
+        return ImageUtils.toThumbnailReference(imageUrl);
+    }
 }
@@ -0,0 +1,27 @@
+package recipeSharing.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Data
+@Builder
+@Document(collection = "revoked_token")
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    @Id
+    private String id; // Token jti, or SHA-256 of the token when it has none
+
+    @Indexed(expireAfterSeconds = 0) // Mongo removes the document once the token itself has expired
+    private Date expiresAt;
+
+    @Indexed
+    private Date revokedAt; // Lets other instances poll for revocations made since their last sync
+}
@@ -0,0 +1,23 @@
+package recipeSharing.event;
+
+import recipeSharing.service.PriceSnapshot;
+
+// Published after a new price snapshot has been swapped in
+public class PriceChangeEvent {
+
+    private final PriceSnapshot previous;
+    private final PriceSnapshot current;
+
+    public PriceChangeEvent(PriceSnapshot previous, PriceSnapshot current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public PriceSnapshot getPrevious() {
+        return previous;
+    }
+
+    public PriceSnapshot getCurrent() {
+        return current;
+    }
+}
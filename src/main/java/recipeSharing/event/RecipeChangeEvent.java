@@ -0,0 +1,43 @@
+package recipeSharing.event;
+
+import recipeSharing.entity.Recipe;
+
+// Published by RecipeService after a recipe is written, so in-memory indexes can follow along
+public class RecipeChangeEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final String recipeId;
+    private final Recipe recipe; // State after the write; null for DELETED
+
+    public RecipeChangeEvent(Type type, String recipeId, Recipe recipe) {
+        this.type = type;
+        this.recipeId = recipeId;
+        this.recipe = recipe;
+    }
+
+    public static RecipeChangeEvent created(Recipe recipe) {
+        return new RecipeChangeEvent(Type.CREATED, recipe.getId(), recipe);
+    }
+
+    public static RecipeChangeEvent updated(Recipe recipe) {
+        return new RecipeChangeEvent(Type.UPDATED, recipe.getId(), recipe);
+    }
+
+    public static RecipeChangeEvent deleted(String recipeId) {
+        return new RecipeChangeEvent(Type.DELETED, recipeId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getRecipeId() {
+        return recipeId;
+    }
+
+    public Recipe getRecipe() {
+        return recipe;
+    }
+}
@@ -0,0 +1,20 @@
+package recipeSharing.mapper;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+import org.mapstruct.control.DeepClone;
+
+/**
+ * Shared settings for the generated mappers. Properties are matched by name, so a field added to
+ * both sides is copied without touching any mapper. A source property with no target fails the
+ * build, so a new request or entity field is never dropped, or exposed, without a decision. Target
+ * properties the source does not have (ids, versions, server-owned counters) are left alone.
+ * Nested objects and lists, e.g. ingredients, are copied rather than shared with the source.
+ */
+@MapperConfig(
+        componentModel = "spring",
+        unmappedSourcePolicy = ReportingPolicy.ERROR,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        mappingControl = DeepClone.class)
+public interface MappingConfig {
+}
@@ -0,0 +1,14 @@
+package recipeSharing.mapper;
+
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import recipeSharing.bean.RecipeDTO;
+import recipeSharing.entity.Recipe;
+
+@Mapper(config = MappingConfig.class)
+public interface RecipeMapper {
+
+    // The favorite flag is per user and worked out on every read, never stored
+    @BeanMapping(ignoreUnmappedSourceProperties = "favorite")
+    Recipe toEntity(RecipeDTO recipeDTO);
+}
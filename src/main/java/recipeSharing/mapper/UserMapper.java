@@ -0,0 +1,24 @@
+package recipeSharing.mapper;
+
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import recipeSharing.bean.UserRegistrationRequest;
+import recipeSharing.bean.UserView;
+import recipeSharing.entity.AuthUser;
+
+@Mapper(config = MappingConfig.class)
+public interface UserMapper {
+
+    // The caller sets the password hash and the image's blob reference once they exist
+    @BeanMapping(ignoreUnmappedSourceProperties = {"password", "image"})
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "image", ignore = true)
+    @Mapping(target = "active", constant = "true")
+    AuthUser toEntity(UserRegistrationRequest request);
+
+    // Never the password hash; the UserDetails flags all mirror active
+    @BeanMapping(ignoreUnmappedSourceProperties = {"password", "authorities", "accountNonExpired",
+            "accountNonLocked", "credentialsNonExpired", "enabled"})
+    UserView toView(AuthUser user);
+}
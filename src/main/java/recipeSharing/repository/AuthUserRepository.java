@@ -1,14 +1,25 @@
 package recipeSharing.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
+import recipeSharing.bean.AuthPrincipal;
 import recipeSharing.entity.AuthUser;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AuthUserRepository extends MongoRepository<AuthUser, String> {
     Optional<AuthUser> findByUsername(String username);
+    Optional<AuthPrincipal> findPrincipalByUsername(String username); // Projection: loads only id, username and active
     List<AuthUser> findAll(); // Use this method instead of getAllUsers
+
+    // Only the fields an AuthorSummary needs; never the password
+    @Query(value = "{ 'username': ?0 }", fields = "{ 'username': 1, 'image': 1 }")
+    Optional<AuthUser> findAuthorByUsername(String username);
+
+    @Query(value = "{ 'username': { $in: ?0 } }", fields = "{ 'username': 1, 'image': 1 }")
+    List<AuthUser> findAuthorsByUsernameIn(Collection<String> usernames);
 }
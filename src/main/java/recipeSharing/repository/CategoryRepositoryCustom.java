@@ -0,0 +1,9 @@
+package recipeSharing.repository;
+
+import recipeSharing.entity.Category;
+
+public interface CategoryRepositoryCustom {
+
+    // Rename in one findAndModify, only at expectedVersion when it is not null; null when nothing matched
+    Category updateName(String categoryId, Long expectedVersion, String name);
+}
@@ -0,0 +1,30 @@
+package recipeSharing.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import recipeSharing.entity.Category;
+
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Category updateName(String categoryId, Long expectedVersion, String name) {
+        // MongoTemplate adds the $inc of @Version itself
+        return mongoTemplate.findAndModify(byIdAndVersion(categoryId, expectedVersion), Update.update("name", name),
+                FindAndModifyOptions.options().returnNew(true), Category.class);
+    }
+
+    static Query byIdAndVersion(String categoryId, Long expectedVersion) {
+        Query query = new Query(Criteria.where("id").is(categoryId));
+        if (expectedVersion != null) {
+            query.addCriteria(VersionCriteria.is(expectedVersion));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,25 @@
+package recipeSharing.repository;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.entity.AuthUser;
+
+import java.util.Collection;
+
+// Non-blocking counterpart of AuthUserRepository, used by the "reactive" profile
+@Repository
+public interface ReactiveAuthUserRepository extends ReactiveMongoRepository<AuthUser, String> {
+    Mono<AuthUser> findByUsername(String username);
+    Mono<Boolean> existsByUsername(String username);
+    Mono<AuthPrincipal> findPrincipalByUsername(String username); // Projection: loads only id, username and active
+
+    @Query(value = "{ 'username': { $in: ?0 } }", fields = "{ 'username': 1, 'image': 1 }")
+    Flux<AuthUser> findAuthorsByUsernameIn(Collection<String> usernames);
+
+    @Query(value = "{ 'username': ?0 }", fields = "{ 'username': 1, 'image': 1 }")
+    Mono<AuthUser> findAuthorByUsername(String username);
+}
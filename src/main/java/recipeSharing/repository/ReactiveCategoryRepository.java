@@ -0,0 +1,10 @@
+package recipeSharing.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import recipeSharing.entity.Category;
+
+// Non-blocking counterpart of CategoryRepository, used by the "reactive" profile
+@Repository
+public interface ReactiveCategoryRepository extends ReactiveMongoRepository<Category, String>, ReactiveCategoryRepositoryCustom {
+}
@@ -0,0 +1,10 @@
+package recipeSharing.repository;
+
+import reactor.core.publisher.Mono;
+import recipeSharing.entity.Category;
+
+public interface ReactiveCategoryRepositoryCustom {
+
+    // Same as CategoryRepositoryCustom.updateName; empty when nothing matched
+    Mono<Category> updateName(String categoryId, Long expectedVersion, String name);
+}
@@ -0,0 +1,20 @@
+package recipeSharing.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import recipeSharing.entity.Category;
+
+public class ReactiveCategoryRepositoryImpl implements ReactiveCategoryRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Category> updateName(String categoryId, Long expectedVersion, String name) {
+        return reactiveMongoTemplate.findAndModify(CategoryRepositoryImpl.byIdAndVersion(categoryId, expectedVersion),
+                Update.update("name", name), FindAndModifyOptions.options().returnNew(true), Category.class);
+    }
+}
@@ -0,0 +1,10 @@
+package recipeSharing.repository;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import recipeSharing.entity.Recipe;
+
+// Non-blocking counterpart of RecipeRepository, used by the "reactive" profile
+@Repository
+public interface ReactiveRecipeRepository extends ReactiveMongoRepository<Recipe, String>, ReactiveRecipeRepositoryCustom {
+}
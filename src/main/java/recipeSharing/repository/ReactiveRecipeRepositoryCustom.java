@@ -0,0 +1,28 @@
+package recipeSharing.repository;
+
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipeSharing.entity.Recipe;
+
+import java.util.Collection;
+
+// Same operations and semantics as RecipeRepositoryCustom; an empty Mono stands for "nothing matched"
+public interface ReactiveRecipeRepositoryCustom {
+
+    Flux<Recipe> findPage(String afterId, String category, String createdBy, int limit);
+
+    Mono<Recipe> findForViewer(String recipeId, String viewer);
+
+    Mono<Recipe> toggleFavorite(String recipeId, String username);
+
+    Flux<Recipe> findFavoritesPage(String username, String afterId, int limit);
+
+    Flux<String> findFavoritedIds(Collection<String> recipeIds, String username);
+
+    Mono<Recipe> updateOwned(String recipeId, String owner, Long expectedVersion, Update update);
+
+    Mono<Recipe> findWriteState(String recipeId);
+
+    Mono<Boolean> deleteOwned(String recipeId, String owner);
+}
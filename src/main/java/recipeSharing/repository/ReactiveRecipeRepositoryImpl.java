@@ -0,0 +1,70 @@
+package recipeSharing.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import recipeSharing.entity.Recipe;
+
+import java.util.Collection;
+
+public class ReactiveRecipeRepositoryImpl implements ReactiveRecipeRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Recipe> findPage(String afterId, String category, String createdBy, int limit) {
+        return reactiveMongoTemplate.find(RecipeQueries.page(afterId, category, createdBy, limit), Recipe.class);
+    }
+
+    @Override
+    public Mono<Recipe> findForViewer(String recipeId, String viewer) {
+        return reactiveMongoTemplate.findOne(RecipeQueries.forViewer(recipeId, viewer), Recipe.class);
+    }
+
+    @Override
+    public Mono<Recipe> toggleFavorite(String recipeId, String username) {
+        return reactiveMongoTemplate.findAndModify(RecipeQueries.forViewer(recipeId, username),
+                RecipeQueries.favoriteToggle(username), FindAndModifyOptions.options().returnNew(true), Recipe.class);
+    }
+
+    @Override
+    public Flux<Recipe> findFavoritesPage(String username, String afterId, int limit) {
+        Query query = new Query(Criteria.where("favoritedBy").is(username));
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").lt(afterId));
+        }
+        query.fields().exclude("favoritedBy");
+        query.with(Sort.by(Sort.Direction.DESC, "id")).limit(limit);
+        return reactiveMongoTemplate.find(query, Recipe.class);
+    }
+
+    @Override
+    public Flux<String> findFavoritedIds(Collection<String> recipeIds, String username) {
+        return reactiveMongoTemplate.find(RecipeQueries.favoritedIds(recipeIds, username), Recipe.class).map(Recipe::getId);
+    }
+
+    @Override
+    public Mono<Recipe> updateOwned(String recipeId, String owner, Long expectedVersion, Update update) {
+        Query query = RecipeQueries.owned(recipeId, owner, expectedVersion);
+        query.fields().exclude("favoritedBy");
+        return reactiveMongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Recipe.class);
+    }
+
+    @Override
+    public Mono<Recipe> findWriteState(String recipeId) {
+        return reactiveMongoTemplate.findOne(RecipeQueries.writeState(recipeId), Recipe.class);
+    }
+
+    @Override
+    public Mono<Boolean> deleteOwned(String recipeId, String owner) {
+        return reactiveMongoTemplate.remove(RecipeQueries.owned(recipeId, owner, null), Recipe.class)
+                .map(result -> result.getDeletedCount() > 0);
+    }
+}
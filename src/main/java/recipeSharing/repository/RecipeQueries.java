@@ -0,0 +1,104 @@
+package recipeSharing.repository;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+// Queries and updates shared by the blocking and the reactive recipe repositories
+final class RecipeQueries {
+
+    // Fields returned by single-document writes and streamed pages; favoritedBy is narrowed to the caller with $elemMatch
+    private static final List<String> RECIPE_FIELDS = List.of("title", "description", "instructions", "servingSize",
+            "createdBy", "imageUrl", "category", "ingredients", "favoriteCount", "version", "author");
+
+    private RecipeQueries() {
+    }
+
+    // Keyset page ordered by _id descending, starting strictly after afterId
+    static Query page(String afterId, String category, String createdBy, int limit) {
+        Query query = pageCriteria(new Query(), afterId, category, createdBy);
+        query.fields().exclude("favoritedBy");
+        query.with(Sort.by(Sort.Direction.DESC, "id")).limit(limit);
+        return query;
+    }
+
+    // The same page with only the viewer's entry of favoritedBy, so each recipe carries its favorite flag
+    static Query pageForViewer(String afterId, String category, String createdBy, String viewer, int limit) {
+        Document fields = new Document();
+        RECIPE_FIELDS.forEach(field -> fields.append(field, 1));
+        fields.append("favoritedBy", new Document("$elemMatch", new Document("$eq", viewer)));
+        Query query = pageCriteria(new BasicQuery(new Document(), fields), afterId, category, createdBy);
+        query.with(Sort.by(Sort.Direction.DESC, "id")).limit(limit);
+        return query;
+    }
+
+    private static Query pageCriteria(Query query, String afterId, String category, String createdBy) {
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").lt(afterId)); // Seek past the cursor instead of skipping
+        }
+        if (category != null && !category.isBlank()) {
+            query.addCriteria(Criteria.where("category").is(category));
+        }
+        if (createdBy != null && !createdBy.isBlank()) {
+            query.addCriteria(Criteria.where("createdBy").is(createdBy));
+        }
+        return query;
+    }
+
+    // The recipe, projected with only the viewer's entry of favoritedBy; read by id and by the favorite toggle
+    static Query forViewer(String recipeId, String viewer) {
+        Document fields = new Document();
+        RECIPE_FIELDS.forEach(field -> fields.append(field, 1));
+        fields.append("favoritedBy", new Document("$elemMatch", new Document("$eq", viewer)));
+        return new BasicQuery(new Document(), fields).addCriteria(Criteria.where("id").is(recipeId));
+    }
+
+    // Pipeline update: add or remove the user and recompute the count server-side, in one round trip
+    static AggregationUpdate favoriteToggle(String username) {
+        Document current = new Document("$ifNull", List.of("$favoritedBy", List.of()));
+        // Inside an expression a string starting with $ is a field path; $literal keeps the username a value
+        Document user = new Document("$literal", username);
+        Document toggled = new Document("$cond", List.of(
+                new Document("$in", List.of(user, current)),
+                new Document("$setDifference", List.of(current, List.of(user))),
+                new Document("$concatArrays", List.of(current, List.of(user)))));
+        AggregationOperation setFavoritedBy = context -> new Document("$set", new Document("favoritedBy", toggled));
+        AggregationOperation setCount = context -> new Document("$set",
+                new Document("favoriteCount", new Document("$size", "$favoritedBy")));
+        // Bump @Version explicitly: the automatic bump is $add on the field, which stays null on legacy documents
+        AggregationExpression nextVersion = context -> new Document("$add",
+                List.of(new Document("$ifNull", List.of("$version", 0)), 1));
+        return AggregationUpdate.from(List.of(setFavoritedBy, setCount))
+                .set(SetOperation.set("version").toValue(nextVersion));
+    }
+
+    // The recipe only if it belongs to owner and, when expectedVersion is not null, is still at that version
+    static Query owned(String recipeId, String owner, Long expectedVersion) {
+        Query query = new Query(Criteria.where("id").is(recipeId).and("createdBy").is(owner));
+        if (expectedVersion != null) {
+            query.addCriteria(VersionCriteria.is(expectedVersion));
+        }
+        return query;
+    }
+
+    static Query writeState(String recipeId) {
+        Query query = new Query(Criteria.where("id").is(recipeId));
+        query.fields().include("createdBy").include("version");
+        return query;
+    }
+
+    static Query favoritedIds(Collection<String> recipeIds, String username) {
+        Query query = new Query(Criteria.where("id").in(recipeIds).and("favoritedBy").is(username));
+        query.fields().include("id");
+        return query;
+    }
+}
@@ -8,6 +8,6 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RecipeRepository extends MongoRepository<Recipe, String> {
+public interface RecipeRepository extends MongoRepository<Recipe, String>, RecipeRepositoryCustom {
     List<Recipe> findByCreatedBy(String username);
 }
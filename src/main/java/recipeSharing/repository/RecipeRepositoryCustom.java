@@ -0,0 +1,59 @@
+package recipeSharing.repository;
+
+import org.springframework.data.mongodb.core.query.Update;
+import recipeSharing.entity.AuthorSummary;
+import recipeSharing.entity.Recipe;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public interface RecipeRepositoryCustom {
+
+    // Keyset page ordered by _id descending (newest first), starting strictly after afterId, as a
+    // cursor fetched batchSize documents at a time. favoritedBy holds just the
+    // viewer when the recipe is one of their favorites. The caller must close the stream.
+    Stream<Recipe> streamPage(String afterId, String category, String createdBy, String viewer, int limit, int batchSize);
+
+    // The recipe with favoritedBy narrowed to the viewer, so the unbounded array is never loaded; null when
+    // the recipe does not exist. favoritedBy holds just the viewer when it is one of their favorites.
+    Recipe findForViewer(String recipeId, String viewer);
+
+    // Flip the user's favorite on a recipe in one atomic findAndModify; null when the recipe does not exist.
+    // On the returned recipe favoritedBy holds just the user when it is now a favorite, and is empty otherwise.
+    Recipe toggleFavorite(String recipeId, String username);
+
+    // Keyset page of the recipes a user has favorited, newest first
+    List<Recipe> findFavoritesPage(String username, String afterId, int limit);
+
+    // Which of the given recipes the user has favorited
+    Set<String> findFavoritedIds(Collection<String> recipeIds, String username);
+
+    // Apply the update only if the recipe exists, belongs to owner and (when expectedVersion is not null)
+    // is still at that version, in one findAndModify; null when nothing matched
+    Recipe updateOwned(String recipeId, String owner, Long expectedVersion, Update update);
+
+    // Just the owner and version of a recipe, to explain why a conditional write matched nothing
+    Recipe findWriteState(String recipeId);
+
+    // Delete the recipe only if it belongs to owner; false when nothing matched
+    boolean deleteOwned(String recipeId, String owner);
+
+    // Rewrite the embedded author on every recipe the user created; returns how many changed
+    long updateAuthor(String username, AuthorSummary author);
+
+    // Insert the recipes in one unordered bulk write; returns the error message of each failed position
+    Map<Integer, String> insertUnordered(List<Recipe> recipes);
+
+    // Stream recipes in _id order, optionally only one user's, without per-user favorite data
+    void forEachForExport(String createdBy, Consumer<Recipe> consumer);
+
+    // Stream every recipe without its image, for rebuilding in-memory indexes
+    void forEachForIndexing(Consumer<Recipe> consumer);
+
+    // Stream every recipe with only its id and category populated
+    void forEachCategoryAssignment(Consumer<Recipe> consumer);
+}
@@ -0,0 +1,128 @@
+package recipeSharing.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import recipeSharing.entity.AuthorSummary;
+import recipeSharing.entity.Recipe;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class RecipeRepositoryImpl implements RecipeRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Stream<Recipe> streamPage(String afterId, String category, String createdBy, String viewer, int limit, int batchSize) {
+        Query query = RecipeQueries.pageForViewer(afterId, category, createdBy, viewer, limit).cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Recipe.class);
+    }
+
+    @Override
+    public Recipe findForViewer(String recipeId, String viewer) {
+        return mongoTemplate.findOne(RecipeQueries.forViewer(recipeId, viewer), Recipe.class);
+    }
+
+    @Override
+    public Recipe toggleFavorite(String recipeId, String username) {
+        return mongoTemplate.findAndModify(RecipeQueries.forViewer(recipeId, username),
+                RecipeQueries.favoriteToggle(username), FindAndModifyOptions.options().returnNew(true), Recipe.class);
+    }
+
+    @Override
+    public List<Recipe> findFavoritesPage(String username, String afterId, int limit) {
+        Query query = new Query(Criteria.where("favoritedBy").is(username));
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").lt(afterId));
+        }
+        query.fields().exclude("favoritedBy");
+        query.with(Sort.by(Sort.Direction.DESC, "id")).limit(limit);
+        return mongoTemplate.find(query, Recipe.class);
+    }
+
+    @Override
+    public Set<String> findFavoritedIds(Collection<String> recipeIds, String username) {
+        return mongoTemplate.find(RecipeQueries.favoritedIds(recipeIds, username), Recipe.class).stream()
+                .map(Recipe::getId).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Recipe updateOwned(String recipeId, String owner, Long expectedVersion, Update update) {
+        Query query = RecipeQueries.owned(recipeId, owner, expectedVersion);
+        query.fields().exclude("favoritedBy");
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Recipe.class);
+    }
+
+    @Override
+    public Recipe findWriteState(String recipeId) {
+        return mongoTemplate.findOne(RecipeQueries.writeState(recipeId), Recipe.class);
+    }
+
+    @Override
+    public boolean deleteOwned(String recipeId, String owner) {
+        return mongoTemplate.remove(RecipeQueries.owned(recipeId, owner, null), Recipe.class).getDeletedCount() > 0;
+    }
+
+    @Override
+    public long updateAuthor(String username, AuthorSummary author) {
+        Query query = new Query(Criteria.where("createdBy").is(username));
+        return mongoTemplate.updateMulti(query, Update.update("author", author), Recipe.class).getModifiedCount();
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Recipe> recipes) {
+        Map<Integer, String> failures = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class).insert(recipes).execute();
+        } catch (BulkOperationException e) {
+            // Unordered: every other document was still written
+            e.getErrors().forEach(error -> failures.put(error.getIndex(), error.getMessage()));
+        }
+        return failures;
+    }
+
+    @Override
+    public void forEachForExport(String createdBy, Consumer<Recipe> consumer) {
+        Query query = new Query();
+        if (createdBy != null && !createdBy.isBlank()) {
+            query.addCriteria(Criteria.where("createdBy").is(createdBy));
+        }
+        query.fields().exclude("favoritedBy");
+        query.with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(500);
+        try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class)) {
+            recipes.forEach(consumer);
+        }
+    }
+
+    @Override
+    public void forEachForIndexing(Consumer<Recipe> consumer) {
+        Query query = new Query();
+        query.fields().exclude("imageUrl").exclude("favoritedBy");
+        try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class)) {
+            recipes.forEach(consumer);
+        }
+    }
+
+    @Override
+    public void forEachCategoryAssignment(Consumer<Recipe> consumer) {
+        Query query = new Query();
+        query.fields().include("category");
+        try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class)) {
+            recipes.forEach(consumer);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package recipeSharing.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+class VersionCriteria {
+
+    // Match a document at the expected @Version; documents written before versioning have no field and count as 0
+    static Criteria is(long expected) {
+        if (expected == 0) {
+            return new Criteria().orOperator(Criteria.where("version").is(0), Criteria.where("version").exists(false));
+        }
+        return Criteria.where("version").is(expected);
+    }
+}
@@ -0,0 +1,83 @@
+package recipeSharing.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.entity.AuthUser;
+import recipeSharing.repository.AuthUserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Service
+public class AuthPrincipalService {
+
+    private final AuthUserRepository authUserRepository;
+    private final JWTService jwtService;
+
+    // Slim principals keyed by username, bounded by size and time since load
+    private final Cache<String, AuthPrincipal> principals;
+
+    public AuthPrincipalService(AuthUserRepository authUserRepository, JWTService jwtService,
+                                @Value("${auth.principal-cache.max-size:10000}") long maxSize,
+                                @Value("${auth.principal-cache.ttl:5m}") Duration ttl) {
+        this.authUserRepository = authUserRepository;
+        this.jwtService = jwtService;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // Authenticate the user using JWT token: one verified parse, then a cached principal lookup
+    public Optional<AuthPrincipal> authenticate(String token) {
+        Claims claims = jwtService.extractVerifiedClaims(token);
+        return findByUsername(claims.getSubject())
+                .filter(principal -> jwtService.isTokenValid(token, claims, principal.getUsername()));
+    }
+
+    // Read-through lookup; unknown usernames are not cached so a later registration is seen at once
+    public Optional<AuthPrincipal> findByUsername(String username) {
+        return Optional.ofNullable(principals.get(username,
+                key -> authUserRepository.findPrincipalByUsername(key).orElse(null)));
+    }
+
+    // Warm the cache from a user already loaded elsewhere, e.g. during login
+    public void cache(AuthUser user) {
+        principals.put(user.getUsername(), new AuthPrincipal(user.getId(), user.getUsername(), user.isActive()));
+    }
+
+    // Cached principal only, without touching Mongo; for callers that look users up themselves
+    public AuthPrincipal getIfCached(String username) {
+        return principals.getIfPresent(username);
+    }
+
+    public void cache(AuthPrincipal principal) {
+        principals.put(principal.getUsername(), principal);
+    }
+
+    // Drop a user after it is saved, deactivated or deleted
+    public void invalidate(String username) {
+        if (username != null) {
+            principals.invalidate(username);
+        }
+    }
+
+    public void invalidateAll() {
+        principals.invalidateAll();
+    }
+
+    // Hit and miss counters for monitoring
+    public CacheStats stats() {
+        return principals.stats();
+    }
+
+    public long size() {
+        return principals.estimatedSize();
+    }
+}
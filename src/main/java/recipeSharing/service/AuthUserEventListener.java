@@ -0,0 +1,61 @@
+package recipeSharing.service;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+import recipeSharing.entity.AuthUser;
+
+// Keeps the principal cache and the authors embedded in recipes consistent with every save or delete of a user
+@Component
+public class AuthUserEventListener extends AbstractMongoEventListener<AuthUser> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthUserEventListener.class);
+
+    private final AuthPrincipalService authPrincipalService;
+    private final AuthorService authorService;
+    // Under the reactive profile saves complete on a driver thread, where the blocking refresh must not run
+    private final boolean reactive;
+
+    public AuthUserEventListener(AuthPrincipalService authPrincipalService, AuthorService authorService,
+                                 Environment environment) {
+        this.authPrincipalService = authPrincipalService;
+        this.authorService = authorService;
+        this.reactive = environment.acceptsProfiles(Profiles.of("reactive"));
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<AuthUser> event) {
+        AuthUser user = event.getSource();
+        authPrincipalService.invalidate(user.getUsername());
+        if (!reactive) {
+            authorService.refresh(user);
+            return;
+        }
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                authorService.refresh(user);
+            } catch (RuntimeException e) {
+                logger.error("Failed to refresh the author on recipes of user {}", user.getUsername(), e);
+            }
+        });
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<AuthUser> event) {
+        // A delete by id does not carry the username, so fall back to clearing everything
+        Document filter = event.getSource();
+        Object username = filter.get("username");
+        if (username instanceof String) {
+            authPrincipalService.invalidate((String) username);
+        } else {
+            authPrincipalService.invalidateAll();
+        }
+    }
+}
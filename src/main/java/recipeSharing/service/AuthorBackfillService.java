@@ -0,0 +1,79 @@
+package recipeSharing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import recipeSharing.entity.AuthUser;
+import recipeSharing.entity.AuthorSummary;
+import recipeSharing.entity.Recipe;
+import recipeSharing.repository.AuthUserRepository;
+import recipeSharing.repository.RecipeRepository;
+
+import java.util.List;
+
+/**
+ * Embeds the author summary in recipes saved before it existed, so reads stop resolving it with a
+ * $in lookup on the user collection. Runs at startup; once every recipe has its author the only cost
+ * is one query that finds nothing. Recipes of deleted users keep no author. Disable with
+ * recipes.author-backfill.enabled.
+ */
+@Service
+@ConditionalOnProperty(name = "recipes.author-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class AuthorBackfillService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorBackfillService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final AuthUserRepository authUserRepository;
+    private final RecipeRepository recipeRepository;
+    private final EntityVersionService entityVersionService;
+    private final int batchSize;
+
+    public AuthorBackfillService(MongoTemplate mongoTemplate, AuthUserRepository authUserRepository,
+                                 RecipeRepository recipeRepository, EntityVersionService entityVersionService,
+                                 @Value("${recipes.author-backfill.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.authUserRepository = authUserRepository;
+        this.recipeRepository = recipeRepository;
+        this.entityVersionService = entityVersionService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            backfill();
+        } catch (Exception e) {
+            // Reads still resolve missing authors, so a failed pass only costs performance
+            logger.error("Author backfill failed", e);
+        }
+    }
+
+    // Returns the number of recipes that got their author
+    long backfill() {
+        Query legacy = new Query(Criteria.where("author").is(null).and("createdBy").ne(null));
+        List<String> usernames = mongoTemplate.findDistinct(legacy, "createdBy", Recipe.class, String.class);
+        if (usernames.isEmpty()) {
+            return 0;
+        }
+        long updated = 0;
+        for (int from = 0; from < usernames.size(); from += batchSize) {
+            List<String> batch = usernames.subList(from, Math.min(from + batchSize, usernames.size()));
+            for (AuthUser user : authUserRepository.findAuthorsByUsernameIn(batch)) {
+                updated += recipeRepository.updateAuthor(user.getUsername(), AuthorSummary.of(user));
+            }
+        }
+        if (updated > 0) {
+            entityVersionService.invalidateRecipes(); // Their versions were bumped outside RecipeService
+        }
+        logger.info("Author backfill finished: {} recipes of {} users", updated, usernames.size());
+        return updated;
+    }
+}
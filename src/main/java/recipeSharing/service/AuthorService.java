@@ -0,0 +1,80 @@
+package recipeSharing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import recipeSharing.entity.AuthUser;
+import recipeSharing.entity.AuthorSummary;
+import recipeSharing.entity.Recipe;
+import recipeSharing.repository.AuthUserRepository;
+import recipeSharing.repository.RecipeRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Maintains the author summary embedded in recipes, replacing the old @DBRef to the user
+@Service
+public class AuthorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorService.class);
+
+    private final AuthUserRepository authUserRepository;
+    private final RecipeRepository recipeRepository;
+    private final EntityVersionService entityVersionService;
+
+    public AuthorService(AuthUserRepository authUserRepository, RecipeRepository recipeRepository,
+                         EntityVersionService entityVersionService) {
+        this.authUserRepository = authUserRepository;
+        this.recipeRepository = recipeRepository;
+        this.entityVersionService = entityVersionService;
+    }
+
+    // Summary to embed in a new recipe
+    public Optional<AuthorSummary> findByUsername(String username) {
+        return authUserRepository.findAuthorByUsername(username).map(AuthorSummary::of);
+    }
+
+    // Recipes written before the author was embedded get it resolved with one $in query for the whole page,
+    // until AuthorBackfillService has stored it on them
+    public void attachAuthors(List<Recipe> recipes) {
+        Set<String> missing = missingAuthors(recipes);
+        if (missing.isEmpty()) {
+            return;
+        }
+        applyAuthors(recipes, authUserRepository.findAuthorsByUsernameIn(missing));
+    }
+
+    // Usernames of the recipes that still lack an embedded author
+    static Set<String> missingAuthors(List<Recipe> recipes) {
+        return recipes.stream()
+                .filter(recipe -> recipe.getAuthor() == null && recipe.getCreatedBy() != null)
+                .map(Recipe::getCreatedBy)
+                .collect(Collectors.toSet());
+    }
+
+    static void applyAuthors(List<Recipe> recipes, Collection<AuthUser> users) {
+        Map<String, AuthorSummary> authors = users.stream()
+                .map(AuthorSummary::of)
+                .collect(Collectors.toMap(AuthorSummary::getUsername, Function.identity(), (a, b) -> a));
+        recipes.stream()
+                .filter(recipe -> recipe.getAuthor() == null)
+                .forEach(recipe -> recipe.setAuthor(authors.get(recipe.getCreatedBy())));
+    }
+
+    // Called after a user document is saved so the copies embedded in their recipes follow profile changes
+    public void refresh(AuthUser user) {
+        if (user.getUsername() == null) {
+            return;
+        }
+        long updated = recipeRepository.updateAuthor(user.getUsername(), AuthorSummary.of(user));
+        if (updated > 0) {
+            entityVersionService.invalidateRecipes(); // Their versions were bumped outside RecipeService
+            logger.info("Refreshed author on {} recipes of user {}", updated, user.getUsername());
+        }
+    }
+}
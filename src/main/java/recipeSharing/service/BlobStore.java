@@ -0,0 +1,22 @@
+package recipeSharing.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public interface BlobStore {
+
+    // Store the bytes under their SHA-256 hash and return the hash; identical content is stored once
+    String put(byte[] content) throws IOException;
+
+    // Look up the blob stored under the given hash
+    Optional<Resource> get(String hash);
+
+    boolean exists(String hash);
+
+    // Store a rendition of the blob under hash (e.g. "thumb"), next to the original; replaces any previous one
+    void putVariant(String hash, String variant, byte[] content) throws IOException;
+
+    Optional<Resource> getVariant(String hash, String variant);
+}
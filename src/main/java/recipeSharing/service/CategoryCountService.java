@@ -0,0 +1,91 @@
+package recipeSharing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import recipeSharing.entity.Recipe;
+import recipeSharing.event.RecipeChangeEvent;
+import recipeSharing.repository.RecipeRepository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Number of recipes per category, built once at startup and kept current from recipe writes
+@Service
+public class CategoryCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryCountService.class);
+
+    private final RecipeRepository recipeRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. The category each recipe was last counted under, so updates and deletes
+    // can be applied without knowing the previous state of the document.
+    private final Map<String, String> categoryByRecipe = new HashMap<>();
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    public CategoryCountService(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            categoryByRecipe.clear();
+            counts.clear();
+            recipeRepository.forEachCategoryAssignment(recipe -> assign(recipe.getId(), recipe.getCategory()));
+            logger.info("Category counts built: {} recipes in {} categories", categoryByRecipe.size(), counts.size());
+        } catch (Exception e) {
+            logger.error("Failed to build category counts", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onRecipeChange(RecipeChangeEvent event) {
+        Recipe recipe = event.getRecipe();
+        lock.writeLock().lock();
+        try {
+            assign(event.getRecipeId(), recipe == null ? null : recipe.getCategory());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Recipe counts keyed by the category value stored on recipes, sorted by category
+    public Map<String, Integer> getCounts() {
+        lock.readLock().lock();
+        try {
+            return Collections.unmodifiableMap(new TreeMap<>(counts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getCount(String category) {
+        lock.readLock().lock();
+        try {
+            return counts.getOrDefault(category, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Move a recipe to a category; null category removes it from the counts. Caller holds the write lock.
+    private void assign(String recipeId, String category) {
+        String previous = category == null ? categoryByRecipe.remove(recipeId) : categoryByRecipe.put(recipeId, category);
+        if (previous != null) {
+            counts.computeIfPresent(previous, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        if (category != null) {
+            counts.merge(category, 1, Integer::sum);
+        }
+    }
+}
@@ -1,43 +1,129 @@
 package recipeSharing.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import recipeSharing.bean.WriteResult;
 import recipeSharing.entity.Category;
 import recipeSharing.repository.CategoryRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class CategoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryService.class);
+
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // The whole (tiny) collection held in memory; loaded on first read and reloaded after every write
+    private final AtomicReference<CategorySnapshot> snapshot = new AtomicReference<>();
+
+    // Serializes reloads so a burst of cold reads or writes costs one query each, not one per caller
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
     // Create or add a new category
     public Category addCategory(Category category) {
-        return categoryRepository.save(category);
+        category.setVersion(null); // Versions are assigned by Mongo writes, never by the client
+        Category saved = categoryRepository.save(category);
+        reload();
+        return saved;
     }
 
-    // Get all categories
+    // Get all categories, from memory
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return getSnapshot().getCategories();
     }
 
-    // Get category by ID
+    // Get category by ID, from memory
     public Optional<Category> getCategoryById(String id) {
-        return categoryRepository.findById(id);
+        return Optional.ofNullable(getSnapshot().get(id));
     }
 
-    // Update an existing category
-    public Category updateCategory(String id, Category updatedCategory) {
-        return categoryRepository.findById(id).map(category -> {
-            category.setName(updatedCategory.getName());
-            return categoryRepository.save(category);
-        }).orElse(null);
+    // Update an existing category; with expectedVersion (from If-Match) only if it is still at that version
+    public WriteResult<Category> updateCategory(String id, Long expectedVersion, Category updatedCategory) {
+        Category updated = categoryRepository.updateName(id, expectedVersion, updatedCategory.getName());
+        if (updated == null) {
+            return categoryRepository.existsById(id) ? WriteResult.preconditionFailed() : WriteResult.notFound();
+        }
+        reload();
+        return WriteResult.ok(updated);
     }
 
     // Delete category by ID
     public void deleteCategory(String id) {
         categoryRepository.deleteById(id);
+        reload();
+    }
+
+    public CategorySnapshot getSnapshot() {
+        CategorySnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        reloadLock.lock();
+        try {
+            current = snapshot.get();
+            return current != null ? current : load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // Picks up writes made by other instances; the snapshot (and its ETag) only changes if the content did
+    @Scheduled(fixedDelayString = "${categories.cache.refresh-ms:60000}")
+    public void refresh() {
+        if (snapshot.get() == null) {
+            return; // Nothing cached yet, the first read loads it
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Failed to refresh category cache, keeping the current snapshot", e);
+        }
+    }
+
+    // Snapshot without loading it; null before the first read
+    public CategorySnapshot getSnapshotIfLoaded() {
+        return snapshot.get();
+    }
+
+    // Reload right away, e.g. after a write that did not go through this service
+    public void reload() {
+        reloadLock.lock();
+        try {
+            load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // Caller holds reloadLock
+    private CategorySnapshot load() {
+        List<Category> categories = categoryRepository.findAll();
+        CategorySnapshot loaded;
+        try {
+            loaded = new CategorySnapshot(categories, objectMapper.writeValueAsBytes(categories));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize categories", e);
+        }
+        CategorySnapshot previous = snapshot.get();
+        if (loaded.sameContentAs(previous)) {
+            return previous;
+        }
+        snapshot.set(loaded);
+        logger.info("Category cache loaded: {} categories", categories.size());
+        return loaded;
     }
 }
@@ -0,0 +1,63 @@
+package recipeSharing.service;
+
+import recipeSharing.entity.Category;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of the whole category collection: the list, an id map, and the list already
+ * serialized to JSON together with a strong ETag over those bytes. The ETag only changes when the
+ * content does, so it is stable across restarts and instances. The Category objects are shared
+ * with callers and must be treated as read-only.
+ */
+public final class CategorySnapshot {
+
+    private final List<Category> categories;
+    private final Map<String, Category> byId;
+    private final byte[] json;
+    private final String etag;
+
+    public CategorySnapshot(List<Category> categories, byte[] json) {
+        Map<String, Category> index = new LinkedHashMap<>();
+        categories.forEach(category -> index.put(category.getId(), category));
+        this.categories = Collections.unmodifiableList(categories);
+        this.byId = Collections.unmodifiableMap(index);
+        this.json = json;
+        this.etag = "\"" + sha256(json).substring(0, 32) + "\"";
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public Category get(String id) {
+        return byId.get(id);
+    }
+
+    // Pre-serialized body of /categories/all; callers must not modify it
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getETag() {
+        return etag;
+    }
+
+    public boolean sameContentAs(CategorySnapshot other) {
+        return other != null && etag.equals(other.etag);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
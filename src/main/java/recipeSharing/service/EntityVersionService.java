@@ -0,0 +1,79 @@
+package recipeSharing.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import recipeSharing.entity.Recipe;
+import recipeSharing.event.RecipeChangeEvent;
+import recipeSharing.util.ETagUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versions this instance has seen, so conditional GETs can be answered with 304 without reading Mongo.
+// Only writes made through this instance are observed; with several instances behind a balancer, or
+// writes made directly in Mongo, the TTL bounds how long a stale version can be served. That holds for
+// the list tag too: it changes with every local write and at least once per TTL.
+@Service
+public class EntityVersionService {
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final AtomicLong recipeChanges = new AtomicLong();
+
+    private final Cache<String, Long> recipeVersions;
+
+    private final long ttlMillis;
+
+    public EntityVersionService(@Value("${etag.recipe-versions.max-size:100000}") long maxSize,
+                                @Value("${etag.recipe-versions.ttl:5m}") Duration ttl) {
+        this.ttlMillis = Math.max(1, ttl.toMillis());
+        this.recipeVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @EventListener
+    public void onRecipeChange(RecipeChangeEvent event) {
+        if (event.getType() == RecipeChangeEvent.Type.DELETED) {
+            recipeVersions.invalidate(event.getRecipeId());
+            recipeChanges.incrementAndGet();
+        } else {
+            recipeWritten(event.getRecipe());
+        }
+    }
+
+    // Record a write that is not published as a RecipeChangeEvent (favorite toggles)
+    public void recipeWritten(Recipe recipe) {
+        recipeVersions.put(recipe.getId(), versionOf(recipe));
+        recipeChanges.incrementAndGet();
+    }
+
+    // Forget every known version after a bulk write that did not go through RecipeService
+    public void invalidateRecipes() {
+        recipeVersions.invalidateAll();
+        recipeChanges.incrementAndGet();
+    }
+
+    // Record a version seen on a read
+    public void recipeRead(Recipe recipe) {
+        recipeVersions.put(recipe.getId(), versionOf(recipe));
+    }
+
+    // Current ETag of a recipe if this instance knows its version, else null
+    public String knownRecipeETag(String recipeId) {
+        Long version = recipeVersions.getIfPresent(recipeId);
+        return version == null ? null : ETagUtils.forVersion(version);
+    }
+
+    public String recipesETag() {
+        return ETagUtils.forCollection(epoch, recipeChanges.get(), System.currentTimeMillis() / ttlMillis);
+    }
+
+    private static long versionOf(Recipe recipe) {
+        return recipe.getVersion() == null ? 0 : recipe.getVersion();
+    }
+}
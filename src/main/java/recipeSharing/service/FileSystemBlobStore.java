@@ -0,0 +1,121 @@
+package recipeSharing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+@Service
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSystemBlobStore.class);
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT_PATTERN = Pattern.compile("[a-z]{1,16}");
+
+    private final Path root;
+
+    public FileSystemBlobStore(@Value("${blob.store.path}") String rootPath) throws IOException {
+        this.root = Paths.get(rootPath).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public String put(byte[] content) throws IOException {
+        String hash = sha256(content);
+        Path target = pathFor(hash);
+        if (Files.exists(target)) {
+            return hash; // Content-addressed, so an existing file already holds these exact bytes
+        }
+
+        write(target, content);
+        logger.debug("Stored blob {} ({} bytes)", hash, content.length);
+        return hash;
+    }
+
+    @Override
+    public Optional<Resource> get(String hash) {
+        if (!isValidHash(hash)) {
+            return Optional.empty();
+        }
+        Path path = pathFor(hash);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return isValidHash(hash) && Files.isRegularFile(pathFor(hash));
+    }
+
+    @Override
+    public void putVariant(String hash, String variant, byte[] content) throws IOException {
+        if (!isValidHash(hash) || !isValidVariant(variant)) {
+            throw new IllegalArgumentException("Invalid blob variant " + hash + "." + variant);
+        }
+        write(variantPath(hash, variant), content);
+        logger.debug("Stored {} variant of blob {} ({} bytes)", variant, hash, content.length);
+    }
+
+    @Override
+    public Optional<Resource> getVariant(String hash, String variant) {
+        if (!isValidHash(hash) || !isValidVariant(variant)) {
+            return Optional.empty();
+        }
+        Path path = variantPath(hash, variant);
+        return Files.isRegularFile(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    public static boolean isValidHash(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+
+    private static boolean isValidVariant(String variant) {
+        return variant != null && VARIANT_PATTERN.matcher(variant).matches();
+    }
+
+    // Fan out into two directory levels so no single directory grows unbounded
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    // Variants sit next to the original as {hash}.{variant}
+    private Path variantPath(String hash, String variant) {
+        return pathFor(hash).resolveSibling(hash + "." + variant);
+    }
+
+    // Write to a temp file in the same directory and rename, so readers never see a partial blob
+    private static void write(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Another request stored the same content concurrently
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
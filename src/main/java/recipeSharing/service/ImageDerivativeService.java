@@ -0,0 +1,334 @@
+package recipeSharing.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import recipeSharing.util.ImageUtils;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates smaller renditions of uploaded images (see {@link Variant}) off the request thread
+ * and stores them next to the original in the blob store. Uploads only enqueue the hash; a small
+ * fixed pool of workers decodes, scales and encodes with ImageIO.
+ *
+ * The queue is bounded. When it is full new work is dropped rather than slowing the upload, and
+ * the first request for a missing variant queues it again (ImageController falls back to the
+ * original meanwhile). A failed write is retried with exponential backoff; an image ImageIO cannot
+ * decode, or one that keeps failing, is remembered for an hour so it is not queued on every request.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    public enum Variant {
+        THUMB(ImageUtils.THUMBNAIL_VARIANT, 160),
+        MEDIUM("medium", 640);
+
+        private final String name;
+        private final int maxEdge; // Longest edge in pixels; the aspect ratio is kept
+
+        Variant(String name, int maxEdge) {
+            this.name = name;
+            this.maxEdge = maxEdge;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public static Optional<Variant> fromName(String name) {
+            for (Variant variant : values()) {
+                if (variant.name.equals(name)) {
+                    return Optional.of(variant);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final BlobStore blobStore;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retries;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final long maxPixels;
+
+    // Hashes queued or in progress, so repeated uploads of the same image queue it once
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // Hashes not worth trying again for a while: undecodable, or out of attempts
+    private final Cache<String, Boolean> skipped = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final Timer skippedTimer;
+    private final Counter rejectedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public ImageDerivativeService(BlobStore blobStore, MeterRegistry meterRegistry,
+                                  @Value("${image.derivatives.threads:2}") int threads,
+                                  @Value("${image.derivatives.queue-capacity:500}") int queueCapacity,
+                                  @Value("${image.derivatives.max-attempts:3}") int maxAttempts,
+                                  @Value("${image.derivatives.retry-delay-ms:1000}") long retryDelayMs,
+                                  @Value("${image.derivatives.max-pixels:40000000}") long maxPixels) {
+        this.blobStore = blobStore;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMs = retryDelayMs;
+        this.maxPixels = maxPixels;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1); // Request threads come first
+            return thread;
+        });
+        this.retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-derivatives-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("image.derivatives.queue.size", workers, executor -> executor.getQueue().size())
+                .description("Images waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("image.derivatives.active", workers, ThreadPoolExecutor::getActiveCount)
+                .description("Images being processed")
+                .register(meterRegistry);
+        this.successTimer = processingTimer(meterRegistry, "success");
+        this.failureTimer = processingTimer(meterRegistry, "failure");
+        this.skippedTimer = processingTimer(meterRegistry, "skipped");
+        this.rejectedCounter = Counter.builder("image.derivatives.rejected")
+                .description("Images dropped because the queue was full")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("image.derivatives.retried")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("image.derivatives.failed")
+                .description("Images given up on after the last attempt")
+                .register(meterRegistry);
+    }
+
+    private static Timer processingTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("image.derivatives.processing")
+                .description("Time to generate all missing variants of one image")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Queue generation of any missing variants of the blob; never blocks the caller
+    public void enqueue(String hash) {
+        if (hash == null || skipped.getIfPresent(hash) != null || !pending.add(hash)) {
+            return;
+        }
+        submit(hash, 1);
+    }
+
+    private void submit(String hash, int attempt) {
+        try {
+            workers.execute(() -> process(hash, attempt));
+        } catch (RejectedExecutionException e) {
+            pending.remove(hash); // Queued again by the next request for one of its variants
+            rejectedCounter.increment();
+            logger.debug("Derivative queue full, dropped image {}", hash);
+        }
+    }
+
+    private void process(String hash, int attempt) {
+        long start = System.nanoTime();
+        try {
+            boolean generated = generateMissing(hash);
+            (generated ? successTimer : skippedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!generated) {
+                skipped.put(hash, Boolean.TRUE);
+            }
+            pending.remove(hash);
+        } catch (IOException | RuntimeException e) {
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (attempt >= maxAttempts) {
+                logger.warn("Giving up on derivatives of image {} after {} attempts", hash, attempt, e);
+                failedCounter.increment();
+                skipped.put(hash, Boolean.TRUE);
+                pending.remove(hash);
+                return;
+            }
+            long delay = retryDelayMs << (attempt - 1);
+            logger.info("Derivatives of image {} failed on attempt {}, retrying in {} ms: {}", hash, attempt, delay, e.toString());
+            retriedCounter.increment();
+            try {
+                retries.schedule(() -> submit(hash, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shutdown) {
+                pending.remove(hash);
+            }
+        }
+    }
+
+    // False when there is nothing to generate from: the original is gone or ImageIO cannot decode it
+    private boolean generateMissing(String hash) throws IOException {
+        boolean missing = false;
+        for (Variant variant : Variant.values()) {
+            missing |= !blobStore.getVariant(hash, variant.name).isPresent();
+        }
+        if (!missing) {
+            return true;
+        }
+        Optional<Resource> original = blobStore.get(hash);
+        if (!original.isPresent()) {
+            return false;
+        }
+        byte[] bytes;
+        try (InputStream in = original.get().getInputStream()) {
+            bytes = in.readAllBytes();
+        }
+        BufferedImage image = decode(bytes);
+        if (image == null) {
+            return false;
+        }
+        for (Variant variant : Variant.values()) {
+            if (!blobStore.getVariant(hash, variant.name).isPresent()) {
+                blobStore.putVariant(hash, variant.name, render(image, bytes, variant));
+            }
+        }
+        logger.debug("Generated derivatives of image {}", hash);
+        return true;
+    }
+
+    // Decode, reading only every n-th pixel of images far larger than the largest variant. Null when
+    // no ImageIO reader handles the format (e.g. WebP), the data is corrupt or the image is too large.
+    private BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    logger.info("Skipping derivatives of a {}x{} image", width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep at least twice the largest variant so the final downscale stays sharp
+                int step = Math.max(1, Math.max(width, height) / (2 * Variant.MEDIUM.maxEdge));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } catch (IOException | IllegalArgumentException e) {
+                logger.info("Cannot decode image for derivatives: {}", e.toString());
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private byte[] render(BufferedImage image, byte[] originalBytes, Variant variant) throws IOException {
+        int longest = Math.max(image.getWidth(), image.getHeight());
+        if (longest <= variant.maxEdge) {
+            return originalBytes; // Already small enough (and never subsampled); re-encoding would only lose quality
+        }
+        double scale = (double) variant.maxEdge / longest;
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        boolean alpha = image.getColorModel().hasAlpha();
+        BufferedImage scaled = scale(image, width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        return alpha ? encodePng(scaled) : encodeJpeg(scaled);
+    }
+
+    // Halve with bilinear filtering until within 2x of the target, then draw the final size; a
+    // single bilinear step from a much larger image skips most source pixels and aliases badly
+    private static BufferedImage scale(BufferedImage source, int width, int height, int type) {
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            if (currentWidth < width * 2 && currentHeight < height * 2) {
+                currentWidth = width;
+                currentHeight = height;
+            }
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retries.shutdownNow();
+        workers.shutdownNow();
+    }
+}
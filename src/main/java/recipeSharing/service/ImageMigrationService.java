@@ -0,0 +1,74 @@
+package recipeSharing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import recipeSharing.entity.AuthUser;
+import recipeSharing.entity.Recipe;
+import recipeSharing.util.ImageUtils;
+
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * One-off job that moves inline Base64 images still held in recipe and user documents into the
+ * blob store, replacing each with its "/images/{hash}" reference. Enable with blob.migration.enabled.
+ */
+@Service
+@ConditionalOnProperty(name = "blob.migration.enabled", havingValue = "true")
+public class ImageMigrationService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageMigrationService.class);
+
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("^" + Pattern.quote(ImageUtils.IMAGE_REFERENCE_PREFIX));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int recipes = migrate(Recipe.class, "imageUrl");
+        int users = migrate(AuthUser.class, "image");
+        logger.info("Image migration finished: {} recipes and {} users moved to the blob store", recipes, users);
+    }
+
+    private int migrate(Class<?> entityClass, String field) {
+        Query query = new Query(Criteria.where(field).ne(null).not().regex(REFERENCE_PATTERN));
+        query.fields().include(field); // Only the image field is needed, not the rest of the document
+        query.cursorBatchSize(16); // Each document carries a large inline image
+
+        int migrated = 0;
+        try (Stream<org.bson.Document> documents = mongoTemplate.stream(query, org.bson.Document.class,
+                mongoTemplate.getCollectionName(entityClass))) {
+            for (org.bson.Document document : (Iterable<org.bson.Document>) documents::iterator) {
+                Object id = document.get("_id");
+                String inline = document.getString(field);
+                try {
+                    String reference = imageStoreService.storeInline(inline);
+                    if (reference == null || reference.equals(inline)) {
+                        continue;
+                    }
+                    // Only replace the value we read, so a concurrent edit is never overwritten
+                    Query target = new Query(Criteria.where("_id").is(id).and(field).is(inline));
+                    if (mongoTemplate.updateFirst(target, Update.update(field, reference), entityClass).getModifiedCount() > 0) {
+                        migrated++;
+                    }
+                } catch (Exception e) {
+                    logger.error("Failed to migrate {} image for document {}", entityClass.getSimpleName(), id, e);
+                }
+            }
+        }
+        return migrated;
+    }
+}
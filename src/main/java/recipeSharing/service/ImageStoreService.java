@@ -0,0 +1,30 @@
+package recipeSharing.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import recipeSharing.util.ImageUtils;
+
+import java.io.IOException;
+
+@Service
+public class ImageStoreService {
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    // Move an inline Base64 image into the blob store and return its "/images/{hash}" reference.
+    // Values that are empty, already references or external URLs are returned unchanged.
+    // Thumbnail and medium renditions are generated in the background.
+    public String storeInline(String image) throws IOException {
+        if (image == null || image.isBlank() || ImageUtils.isImageReference(image)
+                || image.startsWith("http://") || image.startsWith("https://")) {
+            return image;
+        }
+        String hash = blobStore.put(ImageUtils.decodeBase64ToImage(image));
+        imageDerivativeService.enqueue(hash);
+        return ImageUtils.toImageReference(hash);
+    }
+}
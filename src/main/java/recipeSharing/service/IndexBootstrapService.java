@@ -0,0 +1,216 @@
+package recipeSharing.service;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Service;
+import recipeSharing.entity.AuthUser;
+import recipeSharing.entity.Recipe;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Creates the indexes declared on the entities (@Indexed, @CompoundIndex) and verifies the ones
+ * that already exist, before the application takes traffic. It runs during context refresh, once
+ * every singleton exists, so the embedded server has not started yet and a failure keeps it from
+ * starting. An existing index on the same keys with different options (unique, sparse, TTL) is
+ * drift and stops startup, as does a missing index in verify mode. Afterwards every query the
+ * repositories issue is explained, and a plan that falls back to COLLSCAN is reported, or
+ * rejected in strict mode.
+ */
+@Service
+@ConditionalOnProperty(name = "indexes.bootstrap.enabled", havingValue = "true", matchIfMissing = true)
+public class IndexBootstrapService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexBootstrapService.class);
+
+    // Entities whose declared indexes are managed here; revoked_token is handled by TokenRevocationService
+    private static final List<Class<?>> MANAGED_ENTITIES = List.of(AuthUser.class, Recipe.class);
+
+    // Placeholder used as the value in explained filters; the plan does not depend on it
+    private static final String SAMPLE = "__plan_check__";
+
+    private final MongoTemplate mongoTemplate;
+
+    // create: create missing indexes; verify: treat missing indexes as drift too
+    private final String mode;
+
+    // Whether a COLLSCAN plan fails startup instead of only being logged
+    private final boolean strictPlans;
+
+    public IndexBootstrapService(MongoTemplate mongoTemplate,
+                                 @Value("${indexes.bootstrap.mode:create}") String mode,
+                                 @Value("${indexes.plan-check.strict:false}") boolean strictPlans) {
+        this.mongoTemplate = mongoTemplate;
+        this.mode = mode;
+        this.strictPlans = strictPlans;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> problems = new ArrayList<>();
+        for (Class<?> entity : MANAGED_ENTITIES) {
+            bootstrap(entity, problems);
+        }
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> logger.error("Index drift: {}", problem));
+            throw new IllegalStateException("Index drift detected in " + problems.size() + " place(s), see log");
+        }
+
+        List<String> scans = checkPlans();
+        if (!scans.isEmpty()) {
+            scans.forEach(scan -> logger.warn("Query falls back to COLLSCAN: {}", scan));
+            if (strictPlans) {
+                throw new IllegalStateException(scans.size() + " repository queries fall back to COLLSCAN, see log");
+            }
+        }
+    }
+
+    private void bootstrap(Class<?> entity, List<String> problems) {
+        String collection = mongoTemplate.getCollectionName(entity);
+        IndexOperations indexOps = mongoTemplate.indexOps(entity);
+        List<IndexInfo> existing = indexOps.getIndexInfo();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        for (IndexDefinition declared : resolver.resolveIndexFor(entity)) {
+            List<String> keys = keysOf(declared.getIndexKeys());
+            Optional<IndexInfo> match = existing.stream().filter(info -> keysOf(info).equals(keys)).findFirst();
+
+            if (match.isEmpty()) {
+                if (mode.equals("verify")) {
+                    problems.add(collection + " is missing index " + keys);
+                    continue;
+                }
+                // Fails (and so stops startup) when the data violates the index, e.g. duplicate usernames
+                String name = indexOps.ensureIndex(declared);
+                logger.info("Created index {} on {} {}", name, collection, keys);
+                continue;
+            }
+
+            Document options = declared.getIndexOptions();
+            IndexInfo info = match.get();
+            boolean unique = options.getBoolean("unique", false);
+            boolean sparse = options.getBoolean("sparse", false);
+            Long ttl = options.get("expireAfterSeconds") == null ? null : ((Number) options.get("expireAfterSeconds")).longValue();
+            Long existingTtl = info.getExpireAfter().map(Duration::getSeconds).orElse(null);
+            if (info.isUnique() != unique || info.isSparse() != sparse || !Objects.equals(ttl, existingTtl)) {
+                problems.add(String.format("%s index %s on %s is unique=%s sparse=%s ttl=%s, declared unique=%s sparse=%s ttl=%s",
+                        collection, info.getName(), keys, info.isUnique(), info.isSparse(), existingTtl, unique, sparse, ttl));
+            }
+        }
+    }
+
+    // Explain each query the repositories issue, with the filter and sort shapes they use
+    private List<String> checkPlans() {
+        List<PlanCheck> checks = List.of(
+                new PlanCheck("AuthUserRepository.findByUsername", AuthUser.class,
+                        new Document("username", SAMPLE), null),
+                new PlanCheck("RecipeRepository.findByCreatedBy / streamPage(createdBy)", Recipe.class,
+                        new Document("createdBy", SAMPLE), new Document("_id", -1)),
+                new PlanCheck("RecipeRepository.streamPage(category)", Recipe.class,
+                        new Document("category", SAMPLE), new Document("_id", -1)),
+                new PlanCheck("RecipeRepository.findFavoritesPage", Recipe.class,
+                        new Document("favoritedBy", SAMPLE), new Document("_id", -1)),
+                new PlanCheck("RecipeRepository.findFavoritedIds", Recipe.class,
+                        new Document("_id", new Document("$in", List.of(SAMPLE))).append("favoritedBy", SAMPLE), null));
+
+        List<String> scans = new ArrayList<>();
+        for (PlanCheck check : checks) {
+            Document find = new Document("find", mongoTemplate.getCollectionName(check.entity)).append("filter", check.filter);
+            if (check.sort != null) {
+                find.append("sort", check.sort);
+            }
+            try {
+                Document explain = mongoTemplate.getDb().runCommand(
+                        new Document("explain", find).append("verbosity", "queryPlanner"));
+                Document plan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+                if (hasStage(plan, "COLLSCAN")) {
+                    scans.add(check.name + " " + find.toJson());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not explain {}: {}", check.name, e.getMessage());
+            }
+        }
+        logger.info("Checked {} repository query plans, {} use COLLSCAN", checks.size(), scans.size());
+        return scans;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean hasStage(Document plan, String stage) {
+        if (plan == null) {
+            return false;
+        }
+        if (stage.equals(plan.getString("stage"))) {
+            return true;
+        }
+        // Newer servers nest the classic plan under queryPlan (slot-based execution)
+        if (hasStage(plan.get("queryPlan", Document.class), stage) || hasStage(plan.get("inputStage", Document.class), stage)) {
+            return true;
+        }
+        Object inputs = plan.get("inputStages");
+        if (inputs instanceof List) {
+            for (Object input : (List<Object>) inputs) {
+                if (input instanceof Document && hasStage((Document) input, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Ordered "field:direction" keys; Document equality would ignore key order
+    private static List<String> keysOf(Document keys) {
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<String, Object> key : keys.entrySet()) {
+            Object value = key.getValue();
+            result.add(key.getKey() + ":" + (value instanceof Number ? ((Number) value).intValue() : value));
+        }
+        return result;
+    }
+
+    private static List<String> keysOf(IndexInfo info) {
+        List<String> result = new ArrayList<>();
+        for (IndexField field : info.getIndexFields()) {
+            String direction;
+            if (field.isText()) {
+                direction = "text";
+            } else if (field.isHashed()) {
+                direction = "hashed";
+            } else if (field.getDirection() != null) {
+                direction = field.getDirection().isAscending() ? "1" : "-1";
+            } else {
+                direction = "2dsphere";
+            }
+            result.add(field.getKey() + ":" + direction);
+        }
+        return result;
+    }
+
+    private static class PlanCheck {
+        private final String name;
+        private final Class<?> entity;
+        private final Document filter;
+        private final Document sort;
+
+        PlanCheck(String name, Class<?> entity, Document filter, Document sort) {
+            this.name = name;
+            this.entity = entity;
+            this.filter = filter;
+            this.sort = sort;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package recipeSharing.service;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import recipeSharing.bean.CookableRecipeDTO;
+import recipeSharing.entity.Ingredient;
+import recipeSharing.entity.Recipe;
+import recipeSharing.event.RecipeChangeEvent;
+import recipeSharing.repository.RecipeRepository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answers "what can I cook with these ingredients". Every distinct ingredient name gets a
+ * dictionary ID and every recipe an ordinal. Each ingredient keeps a compressed bitmap of the
+ * recipes that use it, and each recipe keeps a bitmap of its ingredient IDs. A query ORs the
+ * bitmaps of the ingredients on hand to find candidates, then uses one AND-cardinality per
+ * candidate to count how many of its ingredients are covered. No recipe documents are scanned.
+ */
+@Service
+public class IngredientMatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngredientMatchService.class);
+
+    private final RecipeRepository recipeRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // All fields below are guarded by lock
+    private final Map<String, Integer> ingredientIds = new HashMap<>();
+    private final List<String> ingredientNames = new ArrayList<>();
+    private final List<RoaringBitmap> recipesByIngredient = new ArrayList<>();
+    private final Map<String, Integer> ordinalById = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private String[] ids = new String[1024];
+    private String[] titles = new String[1024];
+    private RoaringBitmap[] ingredientsByRecipe = new RoaringBitmap[1024];
+    private int nextOrdinal;
+
+    public IngredientMatchService(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ingredientIds.clear();
+            ingredientNames.clear();
+            recipesByIngredient.clear();
+            ordinalById.clear();
+            freeOrdinals.clear();
+            ids = new String[1024];
+            titles = new String[1024];
+            ingredientsByRecipe = new RoaringBitmap[1024];
+            nextOrdinal = 0;
+            recipeRepository.forEachForIndexing(this::add);
+            logger.info("Ingredient index built: {} recipes, {} distinct ingredients", ordinalById.size(), ingredientNames.size());
+        } catch (Exception e) {
+            logger.error("Failed to build ingredient index", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onRecipeChange(RecipeChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getRecipeId());
+            if (event.getRecipe() != null) {
+                add(event.getRecipe());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Recipes missing at most maxMissing ingredients, fewest missing first; 0 means fully covered only
+    public List<CookableRecipeDTO> findCookable(Collection<String> available, int maxMissing, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap have = new RoaringBitmap();
+            List<RoaringBitmap> haveRecipes = new ArrayList<>();
+            for (String name : available) {
+                Integer ingredientId = ingredientIds.get(normalize(name));
+                if (ingredientId != null) {
+                    have.add(ingredientId);
+                    haveRecipes.add(recipesByIngredient.get(ingredientId));
+                }
+            }
+            if (haveRecipes.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            RoaringBitmap candidates = FastAggregation.or(haveRecipes.iterator());
+            List<int[]> matches = new ArrayList<>(); // {ordinal, matched, total}
+            candidates.forEach((int ordinal) -> {
+                RoaringBitmap needed = ingredientsByRecipe[ordinal];
+                int total = needed.getCardinality();
+                int matched = RoaringBitmap.andCardinality(needed, have);
+                if (total - matched <= maxMissing) {
+                    matches.add(new int[]{ordinal, matched, total});
+                }
+            });
+
+            matches.sort(Comparator.<int[]>comparingInt(match -> match[2] - match[1])
+                    .thenComparing(match -> -(double) match[1] / match[2])
+                    .thenComparing(match -> titles[match[0]] == null ? "" : titles[match[0]]));
+
+            List<CookableRecipeDTO> result = new ArrayList<>(Math.min(limit, matches.size()));
+            for (int[] match : matches.subList(0, Math.min(limit, matches.size()))) {
+                List<String> missing = new ArrayList<>();
+                RoaringBitmap.andNot(ingredientsByRecipe[match[0]], have).forEach((int id) -> missing.add(ingredientNames.get(id)));
+                result.add(new CookableRecipeDTO(ids[match[0]], titles[match[0]], match[2], match[1], missing));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Recipe recipe) {
+        if (recipe.getIngredients() == null || recipe.getIngredients().isEmpty()) {
+            return; // Nothing to match against
+        }
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        if (ordinal >= ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            titles = Arrays.copyOf(titles, titles.length * 2);
+            ingredientsByRecipe = Arrays.copyOf(ingredientsByRecipe, ingredientsByRecipe.length * 2);
+        }
+        RoaringBitmap ingredients = new RoaringBitmap();
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            String key = normalize(ingredient.getName());
+            if (key.isEmpty()) {
+                continue;
+            }
+            int ingredientId = ingredientIds.computeIfAbsent(key, name -> {
+                ingredientNames.add(ingredient.getName().trim());
+                recipesByIngredient.add(new RoaringBitmap());
+                return ingredientNames.size() - 1;
+            });
+            ingredients.add(ingredientId);
+            recipesByIngredient.get(ingredientId).add(ordinal);
+        }
+        ingredients.runOptimize();
+        ids[ordinal] = recipe.getId();
+        titles[ordinal] = recipe.getTitle();
+        ingredientsByRecipe[ordinal] = ingredients;
+        ordinalById.put(recipe.getId(), ordinal);
+    }
+
+    private void remove(String recipeId) {
+        Integer ordinal = ordinalById.remove(recipeId);
+        if (ordinal == null) {
+            return;
+        }
+        ingredientsByRecipe[ordinal].forEach((int ingredientId) -> recipesByIngredient.get(ingredientId).remove(ordinal));
+        ids[ordinal] = null;
+        titles[ordinal] = null;
+        ingredientsByRecipe[ordinal] = null;
+        freeOrdinals.push(ordinal); // Bitmaps no longer mention it, so it can be reused
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,20 +1,32 @@
 package recipeSharing.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import recipeSharing.entity.AuthUser;
 
 import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
@@ -22,17 +34,56 @@ public class JWTService {
 
     private Key secretKey;
 
+    // Built once; a JwtParser is immutable and thread-safe
+    private JwtParser jwtParser;
+
     // Load token expiration time from application properties (configurable)
     @Value("${jwt.expiration}")
     private long tokenExpirationMs;
 
-    // In-memory blacklisting (you may want to persist this in a DB or cache for scalability)
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
+    // Upper bound on how many verified tokens are remembered
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Tokens whose signature has already been verified, each evicted at its own expiry
+    private Cache<String, Claims> verifiedTokens;
+
+    // Expiry-bounded revocations keyed by jti (or token hash), optionally shared through Mongo
+    private final TokenRevocationService tokenRevocationService;
+
+    private final MeterRegistry meterRegistry;
+
+    // jwt.verify{outcome}: signature checks on verified-cache misses; hits show up as cache.gets{cache=jwt.verified}
+    private Timer verifySuccessTimer;
+    private Timer verifyFailureTimer;
+
+    public JWTService(TokenRevocationService tokenRevocationService, MeterRegistry meterRegistry) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.meterRegistry = meterRegistry;
+    }
 
     // Generate the secret key using the HS256 algorithm during bean initialization
     @PostConstruct
     public void init() {
         this.secretKey = Keys.secretKeyFor(SignatureAlgorithm.HS256); // Or load from environment variables or keystore
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(secretKey) // Verify using the same key used for signing
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+        this.verifySuccessTimer = verifyTimer("success");
+        this.verifyFailureTimer = verifyTimer("failure");
+    }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Parsing and signature verification of tokens not in the verified cache")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     // Generate token for user
@@ -45,6 +96,7 @@ public class JWTService {
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString()) // jti, the key used for revocation
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + tokenExpirationMs)) // Configurable expiration
@@ -64,37 +116,98 @@ public class JWTService {
 
     // Extract a specific claim from the token using a claim resolver function
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = extractVerifiedClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    // Extract all claims from the token
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey) // Verify using the same key used for signing
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    // Check if the token has expired by comparing the expiration date to the current date
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Parse and verify the token once and return its claims; repeat calls for the same
+    // unexpired token are answered from the verified-token cache without any crypto.
+    // Throws the usual JwtException subtypes for malformed, tampered or expired tokens.
+    public Claims extractVerifiedClaims(String token) {
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+        } catch (RuntimeException e) {
+            verifyFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        verifySuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        verifiedTokens.put(token, claims);
+        return claims;
     }
 
     // Validate the token: check if username matches, token isn't expired, and it's not blacklisted
     public Boolean isTokenValid(String token, AuthUser user) {
-        final String username = extractUsername(token);
-        return (username.equals(user.getUsername()) && !isTokenExpired(token) && !blacklistedTokens.contains(token));
+        return isTokenValid(token, extractVerifiedClaims(token), user.getUsername());
     }
 
-    // Blacklist a token (add to in-memory set or persist in database for scalability)
+    // Same checks against claims the caller already holds from extractVerifiedClaims
+    public boolean isTokenValid(String token, Claims claims, String username) {
+        return username.equals(claims.getSubject())
+                && claims.getExpiration().after(new Date())
+                && !tokenRevocationService.isRevoked(revocationKey(token, claims));
+    }
+
+    // Blacklist a token until it expires; tokens that no longer verify cannot be used anyway
     public void blacklistToken(String token) {
-        blacklistedTokens.add(token);
+        verifiedTokens.invalidate(token);
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            tokenRevocationService.revoke(revocationKey(token, claims), claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired, malformed or tampered: nothing to revoke
+        }
     }
 
     // Remove token from blacklist (if you want to allow reactivation)
     public void removeTokenFromBlacklist(String token) {
-        blacklistedTokens.remove(token);
+        try {
+            tokenRevocationService.unrevoke(revocationKey(token, jwtParser.parseClaimsJws(token).getBody()));
+        } catch (JwtException | IllegalArgumentException e) {
+            tokenRevocationService.unrevoke(sha256(token));
+        }
+    }
+
+    // Revocations are keyed by jti; tokens issued before jti was added fall back to their hash
+    private String revocationKey(String token, Claims claims) {
+        return claims.getId() != null ? claims.getId() : sha256(token);
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Expires each cached entry at the "exp" claim of the token it holds
+    private static class ExpireAtTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0; // Never cache tokens without an expiry
+            }
+            long remainingMs = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
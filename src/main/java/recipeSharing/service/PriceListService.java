@@ -1,10 +1,15 @@
 package recipeSharing.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.util.HashMap;
+import recipeSharing.event.PriceChangeEvent;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import javax.annotation.PostConstruct;
@@ -14,13 +19,27 @@ import java.io.InputStream;
 @Service
 public class PriceListService {
 
-    private Map<String, String> itemPrices = new HashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(PriceListService.class);
+
+    // Readers take the current snapshot without locking; writers swap in a new one atomically
+    private final AtomicReference<PriceSnapshot> snapshot = new AtomicReference<>(PriceSnapshot.empty());
 
     // ObjectMapper for reading the JSON file
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PriceListService(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public PriceSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    // Current prices formatted as "Rs. 0.00"
     public Map<String, String> getItemPrices() {
-        return itemPrices;
+        return snapshot.get().formatAll();
     }
 
     // Load the prices from the JSON file on application startup
@@ -28,26 +47,50 @@ public class PriceListService {
     public void loadPricesFromJson() {
         try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("prices.json")) {
             if (inputStream != null) {
-                itemPrices = objectMapper.readValue(inputStream, new TypeReference<Map<String, String>>() {});
-                System.out.println("Prices loaded from JSON: " + itemPrices);
+                Map<String, String> prices = objectMapper.readValue(inputStream, new TypeReference<LinkedHashMap<String, String>>() {});
+                updateItemPrices(prices);
+                logger.info("Loaded {} prices from JSON", prices.size());
             } else {
-                System.err.println("Could not find the prices.json file!");
+                logger.error("Could not find the prices.json file!");
             }
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.error("Failed to load prices from JSON", e);
         }
     }
 
+    // Set the given item prices, adding items that were not priced before.
+    // Throws IllegalArgumentException if any price cannot be parsed; nothing is applied in that case.
+    public PriceSnapshot updateItemPrices(Map<String, String> newPrices) {
+        Map<String, Long> cents = new LinkedHashMap<>();
+        newPrices.forEach((item, price) -> cents.put(item, PriceSnapshot.parse(price)));
+        PriceSnapshot current;
+        PriceSnapshot next;
+        do {
+            current = snapshot.get();
+            next = current.withUpdates(cents);
+        } while (!snapshot.compareAndSet(current, next));
+
+        eventPublisher.publishEvent(new PriceChangeEvent(current, next));
+        return next;
+    }
+
     // Update prices randomly every 10 seconds
     @Scheduled(fixedRate = 10000)
     public void updatePrices() {
-        Random random = new Random();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
 
-        itemPrices.replaceAll((item, price) -> {
-            double newPrice = 100 + (500 - 100) * random.nextDouble(); // Random price between Rs. 100 and Rs. 500
-            return String.format("Rs. %.2f", newPrice);
-        });
+        PriceSnapshot current;
+        PriceSnapshot next;
+        do {
+            current = snapshot.get();
+            long[] newCents = new long[current.size()];
+            for (int i = 0; i < newCents.length; i++) {
+                newCents[i] = 10_000 + random.nextLong(40_001); // Random price between Rs. 100 and Rs. 500
+            }
+            next = current.withPrices(newCents);
+        } while (!snapshot.compareAndSet(current, next));
 
-        System.out.println("Prices updated: " + itemPrices);
+        eventPublisher.publishEvent(new PriceChangeEvent(current, next));
+        logger.debug("Prices updated to version {} ({} items)", next.getVersion(), next.size());
     }
 }
@@ -0,0 +1,149 @@
+package recipeSharing.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of all item prices. Prices are held as cents in an array indexed by
+ * item ordinal, next to the version at which each item last changed, and only turned into
+ * "Rs. 0.00" strings when a response is written. The item name table is shared between
+ * snapshots until an item is added.
+ */
+public final class PriceSnapshot {
+
+    private static final String CURRENCY_PREFIX = "Rs.";
+
+    private final long version;
+    private final String[] items;
+    private final Map<String, Integer> itemIndex;
+    private final long[] cents;
+    private final long[] changedAt;
+
+    private PriceSnapshot(long version, String[] items, Map<String, Integer> itemIndex, long[] cents, long[] changedAt) {
+        this.version = version;
+        this.items = items;
+        this.itemIndex = itemIndex;
+        this.cents = cents;
+        this.changedAt = changedAt;
+    }
+
+    public static PriceSnapshot empty() {
+        return new PriceSnapshot(0, new String[0], Collections.emptyMap(), new long[0], new long[0]);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public String item(int ordinal) {
+        return items[ordinal];
+    }
+
+    public long cents(int ordinal) {
+        return cents[ordinal];
+    }
+
+    // Version at which the item's price last changed
+    public long changedAt(int ordinal) {
+        return changedAt[ordinal];
+    }
+
+    // Ordinal of the item, or -1 when it has no price
+    public int indexOf(String item) {
+        Integer ordinal = itemIndex.get(item);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    // New snapshot with every price replaced; only items whose value differs are marked changed
+    public PriceSnapshot withPrices(long[] newCents) {
+        long next = version + 1;
+        long[] newChangedAt = changedAt.clone();
+        for (int i = 0; i < newCents.length; i++) {
+            if (newCents[i] != cents[i]) {
+                newChangedAt[i] = next;
+            }
+        }
+        return new PriceSnapshot(next, items, itemIndex, newCents, newChangedAt);
+    }
+
+    // New snapshot with the given items set, appending items that were not priced before
+    public PriceSnapshot withUpdates(Map<String, Long> updates) {
+        long next = version + 1;
+        String[] newItems = items;
+        Map<String, Integer> newIndex = itemIndex;
+        long added = updates.keySet().stream().filter(item -> !itemIndex.containsKey(item)).count();
+        if (added > 0) {
+            newItems = Arrays.copyOf(items, items.length + (int) added);
+            newIndex = new HashMap<>(itemIndex);
+            int ordinal = items.length;
+            for (String item : updates.keySet()) {
+                if (!itemIndex.containsKey(item)) {
+                    newItems[ordinal] = item;
+                    newIndex.put(item, ordinal++);
+                }
+            }
+        }
+        long[] newCents = Arrays.copyOf(cents, newItems.length);
+        long[] newChangedAt = Arrays.copyOf(changedAt, newItems.length);
+        for (Map.Entry<String, Long> update : updates.entrySet()) {
+            int ordinal = newIndex.get(update.getKey());
+            if (ordinal >= items.length || newCents[ordinal] != update.getValue()) {
+                newCents[ordinal] = update.getValue();
+                newChangedAt[ordinal] = next;
+            }
+        }
+        Map<String, Integer> frozenIndex = newIndex == itemIndex ? itemIndex : Collections.unmodifiableMap(newIndex);
+        return new PriceSnapshot(next, newItems, frozenIndex, newCents, newChangedAt);
+    }
+
+    // Formatted prices of items changed after the given version (all items for a negative version)
+    public Map<String, String> formatChangedSince(long sinceVersion) {
+        Map<String, String> prices = new LinkedHashMap<>();
+        for (int i = 0; i < items.length; i++) {
+            if (changedAt[i] > sinceVersion) {
+                prices.put(items[i], format(cents[i]));
+            }
+        }
+        return prices;
+    }
+
+    public Map<String, String> formatAll() {
+        return formatChangedSince(-1);
+    }
+
+    // Same output as String.format("Rs. %.2f", cents / 100.0) without the formatter overhead
+    public static String format(long cents) {
+        long rupees = cents / 100;
+        long fraction = cents % 100;
+        return CURRENCY_PREFIX + " " + rupees + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    // Parse "Rs. 200.00", "200.00" or "200" into cents
+    public static long parse(String price) {
+        if (price == null) {
+            throw new IllegalArgumentException("Price is missing");
+        }
+        String amount = price.trim();
+        if (amount.startsWith(CURRENCY_PREFIX)) {
+            amount = amount.substring(CURRENCY_PREFIX.length()).trim();
+        }
+        try {
+            BigDecimal value = new BigDecimal(amount.replace(",", ""));
+            if (value.signum() < 0) {
+                throw new IllegalArgumentException("Price must not be negative: " + price);
+            }
+            return value.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: " + price, e);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package recipeSharing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import recipeSharing.bean.PriceDeltaDTO;
+import recipeSharing.event.PriceChangeEvent;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes price changes to Server-Sent Events subscribers. A subscriber first receives a full
+ * "snapshot" event and then "delta" events with only the items that changed. Connections are
+ * held by the servlet container in async mode, and a small shared worker pool writes to them,
+ * so there is no thread per subscriber.
+ *
+ * Each subscriber only remembers the last snapshot version it was sent. A slow subscriber
+ * therefore never queues ticks: once its previous write completes it gets one delta against the
+ * latest snapshot, with intermediate changes coalesced, and its buffer never grows.
+ *
+ * Writes block until the client's TCP window has room, and Tomcat only gives up on them after the
+ * connector timeout. A subscriber whose write takes longer than write-timeout-ms is dropped, and the
+ * pool gets a replacement thread for as long as that write stays blocked (up to max-stalled-senders),
+ * so a few stalled clients cannot hold up delivery to everyone else.
+ */
+@Service
+public class PriceStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceStreamService.class);
+
+    private final PriceListService priceListService;
+    private final ThreadPoolExecutor senders;
+    private final int senderThreads;
+    private final long emitterTimeoutMs;
+    private final int maxSubscribers;
+    private final long writeTimeoutNanos;
+    private final int maxStalledSenders;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Reserved before a subscriber is added, so concurrent subscribes cannot overshoot maxSubscribers
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Sender threads blocked in a timed-out write, each replaced by an extra pool thread; guarded by senders
+    private int stalledSenders;
+
+    public PriceStreamService(PriceListService priceListService,
+                              @Value("${prices.stream.sender-threads:4}") int senderThreads,
+                              @Value("${prices.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+                              @Value("${prices.stream.max-subscribers:10000}") int maxSubscribers,
+                              @Value("${prices.stream.write-timeout-ms:5000}") long writeTimeoutMs,
+                              @Value("${prices.stream.max-stalled-senders:32}") int maxStalledSenders) {
+        this.priceListService = priceListService;
+        this.senderThreads = senderThreads;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.maxStalledSenders = maxStalledSenders;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "price-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Register a subscriber, optionally limited to the given items; null when the node is full
+    public SseEmitter subscribe(Set<String> items) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, items == null || items.isEmpty() ? null : items);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.add(subscriber);
+        schedule(subscriber); // First drain sends the full snapshot
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @EventListener
+    public void onPriceChange(PriceChangeEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    // Comment line that keeps idle connections open and surfaces dead ones
+    @Scheduled(fixedRateString = "${prices.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            // A subscriber that is busy sending is evidently alive, so it can skip this beat
+            if (subscriber.sending.compareAndSet(false, true)) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    // Drop subscribers whose current write has been blocked too long, and stand in for their sender thread
+    @Scheduled(fixedRateString = "${prices.stream.write-check-ms:1000}")
+    public void dropStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            // State first: sendStartedNanos is written before the state, so it then belongs to this write
+            if (subscriber.writeState.get() == Subscriber.WRITING && now - subscriber.sendStartedNanos > writeTimeoutNanos) {
+                addStandInSender(subscriber);
+                drop(subscriber, new IOException("Write blocked for more than "
+                        + TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos) + " ms"));
+            }
+        }
+    }
+
+    private void addStandInSender(Subscriber subscriber) {
+        synchronized (senders) {
+            if (stalledSenders >= maxStalledSenders || !subscriber.writeState.compareAndSet(Subscriber.WRITING, Subscriber.STALLED)) {
+                return; // At the cap, or the write has just returned
+            }
+            stalledSenders++;
+            senders.setMaximumPoolSize(senderThreads + stalledSenders);
+            senders.setCorePoolSize(senderThreads + stalledSenders);
+        }
+    }
+
+    // The stalled write has returned (Tomcat timed it out or the client caught up); the extra thread exits when idle
+    private void removeStandInSender() {
+        synchronized (senders) {
+            stalledSenders--;
+            senders.setCorePoolSize(senderThreads + stalledSenders);
+            senders.setMaximumPoolSize(senderThreads + stalledSenders);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    // At most one pending drain per subscriber; further changes are picked up by that drain
+    private void schedule(Subscriber subscriber) {
+        subscriber.dirty = true;
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            subscriber.dirty = false;
+            PriceSnapshot snapshot = priceListService.getSnapshot();
+            boolean sent = false;
+            try {
+                if (subscriber.lastSentVersion < 0) {
+                    send(subscriber, SseEmitter.event().name("snapshot")
+                            .id(String.valueOf(snapshot.getVersion()))
+                            .data(new PriceDeltaDTO(snapshot.getVersion(), changes(snapshot, subscriber, -1))));
+                    sent = true;
+                } else if (snapshot.getVersion() > subscriber.lastSentVersion) {
+                    Map<String, String> changes = changes(snapshot, subscriber, subscriber.lastSentVersion);
+                    if (!changes.isEmpty()) {
+                        send(subscriber, SseEmitter.event().name("delta")
+                                .id(String.valueOf(snapshot.getVersion()))
+                                .data(new PriceDeltaDTO(snapshot.getVersion(), changes)));
+                        sent = true;
+                    }
+                }
+                subscriber.lastSentVersion = snapshot.getVersion();
+                if (!sent && subscriber.heartbeatDue) {
+                    send(subscriber, SseEmitter.event().comment("keep-alive"));
+                }
+                subscriber.heartbeatDue = false;
+            } catch (IOException | IllegalStateException e) {
+                drop(subscriber, e);
+                return;
+            }
+            subscriber.sending.set(false);
+            // A change that arrived while we were sending will not have scheduled a drain
+        } while (subscriber.dirty && subscriber.sending.compareAndSet(false, true));
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendStartedNanos = System.nanoTime();
+        subscriber.writeState.set(Subscriber.WRITING);
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            if (subscriber.writeState.getAndSet(Subscriber.IDLE) == Subscriber.STALLED) {
+                removeStandInSender();
+            }
+        }
+    }
+
+    private Map<String, String> changes(PriceSnapshot snapshot, Subscriber subscriber, long sinceVersion) {
+        if (subscriber.items == null) {
+            return snapshot.formatChangedSince(sinceVersion);
+        }
+        Map<String, String> changes = new LinkedHashMap<>();
+        for (String item : subscriber.items) {
+            int ordinal = snapshot.indexOf(item);
+            if (ordinal >= 0 && snapshot.changedAt(ordinal) > sinceVersion) {
+                changes.put(item, PriceSnapshot.format(snapshot.cents(ordinal)));
+            }
+        }
+        return changes;
+    }
+
+    private void drop(Subscriber subscriber, Exception e) {
+        logger.debug("Dropping price stream subscriber: {}", e.getMessage());
+        remove(subscriber);
+        subscriber.emitter.completeWithError(e);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private static final class Subscriber {
+        private static final int IDLE = 0;
+        private static final int WRITING = 1;
+        private static final int STALLED = 2;
+
+        private final SseEmitter emitter;
+        private final Set<String> items; // null means every item
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean dirty;
+        private volatile boolean heartbeatDue;
+        private volatile long lastSentVersion = -1;
+        // IDLE, WRITING since sendStartedNanos, or STALLED: still writing, with an extra pool thread standing in
+        private final AtomicInteger writeState = new AtomicInteger(IDLE);
+        private volatile long sendStartedNanos;
+
+        private Subscriber(SseEmitter emitter, Set<String> items) {
+            this.emitter = emitter;
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package recipeSharing.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import recipeSharing.bean.AuthPrincipal;
+import recipeSharing.entity.AuthUser;
+import recipeSharing.repository.ReactiveAuthUserRepository;
+
+// Token and password checks for the reactive handlers; shares the principal cache with AuthPrincipalService
+@Service
+@Profile("reactive")
+public class ReactiveAuthService {
+
+    private final ReactiveAuthUserRepository authUserRepository;
+    private final AuthPrincipalService authPrincipalService;
+    private final JWTService jwtService;
+    private final PasswordEncoder passwordEncoder;
+
+    public ReactiveAuthService(ReactiveAuthUserRepository authUserRepository, AuthPrincipalService authPrincipalService,
+                               JWTService jwtService, PasswordEncoder passwordEncoder) {
+        this.authUserRepository = authUserRepository;
+        this.authPrincipalService = authPrincipalService;
+        this.jwtService = jwtService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    // Empty for a missing, invalid, expired or revoked token, or an unknown user
+    public Mono<AuthPrincipal> authenticate(String token) {
+        if (token == null || token.isBlank()) {
+            return Mono.empty();
+        }
+        Claims claims;
+        try {
+            claims = jwtService.extractVerifiedClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.empty();
+        }
+        String username = claims.getSubject();
+        AuthPrincipal cached = authPrincipalService.getIfCached(username);
+        Mono<AuthPrincipal> principal = cached != null
+                ? Mono.just(cached)
+                : authUserRepository.findPrincipalByUsername(username).doOnNext(authPrincipalService::cache);
+        return principal.filter(found -> jwtService.isTokenValid(token, claims, found.getUsername()));
+    }
+
+    // The user when the password matches and the account is active; BCrypt runs off the event loop
+    public Mono<AuthUser> login(String username, String password) {
+        return authUserRepository.findByUsername(username)
+                .filterWhen(user -> Mono.fromCallable(() -> passwordEncoder.matches(password, user.getPassword()))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .filter(AuthUser::isEnabled)
+                .doOnNext(authPrincipalService::cache);
+    }
+
+    public Mono<String> encodePassword(String password) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(password)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> logout(String token) {
+        // Revocation may write to the shared revoked_token collection
+        return Mono.fromRunnable(() -> jwtService.blacklistToken(token)).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+}
@@ -0,0 +1,56 @@
+package recipeSharing.service;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import recipeSharing.bean.WriteResult;
+import recipeSharing.entity.Category;
+import recipeSharing.repository.ReactiveCategoryRepository;
+
+// Category writes through the reactive repository; reads come from CategoryService's in-memory snapshot
+@Service
+@Profile("reactive")
+public class ReactiveCategoryService {
+
+    private final ReactiveCategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+
+    public ReactiveCategoryService(ReactiveCategoryRepository categoryRepository, CategoryService categoryService) {
+        this.categoryRepository = categoryRepository;
+        this.categoryService = categoryService;
+    }
+
+    public Mono<Category> addCategory(Category category) {
+        category.setVersion(null); // Versions are assigned by Mongo writes, never by the client
+        return categoryRepository.save(category).flatMap(saved -> reloadSnapshot().thenReturn(saved));
+    }
+
+    // Only the first read (or one after a failed load) leaves the event loop
+    public Mono<CategorySnapshot> getSnapshot() {
+        CategorySnapshot loaded = categoryService.getSnapshotIfLoaded();
+        if (loaded != null) {
+            return Mono.just(loaded);
+        }
+        return Mono.fromCallable(categoryService::getSnapshot).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Category> getCategoryById(String id) {
+        return getSnapshot().mapNotNull(snapshot -> snapshot.get(id));
+    }
+
+    public Mono<WriteResult<Category>> updateCategory(String id, Long expectedVersion, Category updatedCategory) {
+        return categoryRepository.updateName(id, expectedVersion, updatedCategory.getName())
+                .flatMap(updated -> reloadSnapshot().thenReturn(WriteResult.ok(updated)))
+                .switchIfEmpty(Mono.defer(() -> categoryRepository.existsById(id)
+                        .map(exists -> exists ? WriteResult.<Category>preconditionFailed() : WriteResult.<Category>notFound())));
+    }
+
+    public Mono<Void> deleteCategory(String id) {
+        return categoryRepository.deleteById(id).then(reloadSnapshot());
+    }
+
+    private Mono<Void> reloadSnapshot() {
+        return Mono.fromRunnable(categoryService::reload).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+}
@@ -0,0 +1,158 @@
+package recipeSharing.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import recipeSharing.bean.CursorPage;
+import recipeSharing.bean.WriteResult;
+import recipeSharing.entity.AuthorSummary;
+import recipeSharing.entity.Recipe;
+import recipeSharing.event.RecipeChangeEvent;
+import recipeSharing.repository.ReactiveAuthUserRepository;
+import recipeSharing.repository.ReactiveRecipeRepository;
+import recipeSharing.util.CursorUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking version of RecipeService for the "reactive" profile. Reads and writes go through
+ * ReactiveRecipeRepository with the same queries; paging, patch translation and the change events
+ * that keep the in-memory indexes current are shared with RecipeService. Blob store writes are the
+ * only blocking step left and run on the bounded elastic scheduler.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveRecipeService {
+
+    private final ReactiveRecipeRepository recipeRepository;
+    private final ReactiveAuthUserRepository authUserRepository;
+    private final RecipeService recipeService;
+    private final ImageStoreService imageStoreService;
+    private final EntityVersionService entityVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveRecipeService(ReactiveRecipeRepository recipeRepository, ReactiveAuthUserRepository authUserRepository,
+                                 RecipeService recipeService, ImageStoreService imageStoreService,
+                                 EntityVersionService entityVersionService, ApplicationEventPublisher eventPublisher) {
+        this.recipeRepository = recipeRepository;
+        this.authUserRepository = authUserRepository;
+        this.recipeService = recipeService;
+        this.imageStoreService = imageStoreService;
+        this.entityVersionService = entityVersionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Mono<Recipe> addRecipe(Recipe recipe) {
+        Mono<Recipe> withImage = Mono.fromCallable(() -> {
+            recipe.setImageUrl(imageStoreService.storeInline(recipe.getImageUrl()));
+            return recipe;
+        }).subscribeOn(Schedulers.boundedElastic());
+        return withImage
+                .flatMap(toSave -> authUserRepository.findAuthorByUsername(toSave.getCreatedBy())
+                        .map(AuthorSummary::of)
+                        .doOnNext(toSave::setAuthor)
+                        .thenReturn(toSave))
+                .flatMap(recipeRepository::save)
+                .doOnNext(saved -> eventPublisher.publishEvent(RecipeChangeEvent.created(saved)));
+    }
+
+    public Mono<Recipe> getRecipeById(String id, String viewer) {
+        return recipeRepository.findForViewer(id, viewer)
+                .doOnNext(recipe -> {
+                    recipe.setFavorite(recipe.getFavoritedBy() != null && !recipe.getFavoritedBy().isEmpty());
+                    recipe.setFavoritedBy(null);
+                })
+                .doOnNext(entityVersionService::recipeRead)
+                .flatMap(recipe -> attachAuthors(List.of(recipe)).thenReturn(recipe));
+    }
+
+    // Errors with IllegalArgumentException for a malformed cursor
+    public Mono<CursorPage<Recipe>> getRecipePage(String cursor, Integer size, String category, String createdBy) {
+        return Mono.defer(() -> {
+            int pageSize = recipeService.pageSize(size);
+            return recipeRepository.findPage(CursorUtils.decode(cursor), category, createdBy, pageSize + 1)
+                    .collectList()
+                    .flatMap(this::attachAuthors)
+                    .map(recipes -> recipeService.toPage(recipes, pageSize));
+        });
+    }
+
+    public Mono<CursorPage<Recipe>> getFavoritesPage(String username, String cursor, Integer size) {
+        return Mono.defer(() -> {
+            int pageSize = recipeService.pageSize(size);
+            return recipeRepository.findFavoritesPage(username, CursorUtils.decode(cursor), pageSize + 1)
+                    .doOnNext(recipe -> recipe.setFavorite(true))
+                    .collectList()
+                    .flatMap(this::attachAuthors)
+                    .map(recipes -> recipeService.toPage(recipes, pageSize));
+        });
+    }
+
+    // Same semantics as RecipeService.updateRecipe; errors with IllegalArgumentException for a bad patch
+    public Mono<WriteResult<Recipe>> updateRecipe(String id, String owner, Long expectedVersion, JsonNode patch) {
+        return Mono.fromCallable(() -> recipeService.toUpdate(patch))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(update -> recipeRepository.updateOwned(id, owner, expectedVersion, update))
+                .doOnNext(updated -> eventPublisher.publishEvent(RecipeChangeEvent.updated(updated)))
+                .map(WriteResult::ok)
+                .switchIfEmpty(Mono.defer(() -> explainFailedWrite(id, owner)));
+    }
+
+    public Mono<WriteResult<Void>> deleteRecipe(String id, String owner) {
+        return recipeRepository.deleteOwned(id, owner).flatMap(deleted -> {
+            if (!deleted) {
+                return explainFailedWrite(id, owner);
+            }
+            eventPublisher.publishEvent(RecipeChangeEvent.deleted(id));
+            return Mono.just(WriteResult.<Void>ok(null));
+        });
+    }
+
+    private <T> Mono<WriteResult<T>> explainFailedWrite(String id, String owner) {
+        return recipeRepository.findWriteState(id)
+                .map(current -> owner.equals(current.getCreatedBy())
+                        ? WriteResult.<T>preconditionFailed()
+                        : WriteResult.<T>forbidden())
+                .defaultIfEmpty(WriteResult.notFound());
+    }
+
+    // Empty when the recipe does not exist
+    public Mono<Recipe> toggleFavorite(String id, String username) {
+        return recipeRepository.toggleFavorite(id, username).doOnNext(recipe -> {
+            recipe.setFavorite(recipe.getFavoritedBy() != null && !recipe.getFavoritedBy().isEmpty());
+            recipe.setFavoritedBy(null);
+            entityVersionService.recipeWritten(recipe);
+        });
+    }
+
+    public Mono<List<Recipe>> markFavorites(List<Recipe> recipes, String username) {
+        if (recipes.isEmpty()) {
+            return Mono.just(recipes);
+        }
+        List<String> ids = recipes.stream().map(Recipe::getId).collect(Collectors.toList());
+        return recipeRepository.findFavoritedIds(ids, username)
+                .collect(Collectors.toSet())
+                .map(favorited -> {
+                    recipes.forEach(recipe -> recipe.setFavorite(favorited.contains(recipe.getId())));
+                    return recipes;
+                });
+    }
+
+    private Mono<List<Recipe>> attachAuthors(List<Recipe> recipes) {
+        Set<String> missing = AuthorService.missingAuthors(recipes);
+        if (missing.isEmpty()) {
+            return Mono.just(recipes);
+        }
+        return authUserRepository.findAuthorsByUsernameIn(missing)
+                .collectList()
+                .map(users -> {
+                    AuthorService.applyAuthors(recipes, users);
+                    return recipes;
+                });
+    }
+}
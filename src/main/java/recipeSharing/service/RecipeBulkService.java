@@ -0,0 +1,222 @@
+package recipeSharing.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import recipeSharing.bean.BulkImportLineDTO;
+import recipeSharing.bean.BulkExportSummaryDTO;
+import recipeSharing.bean.BulkImportSummaryDTO;
+import recipeSharing.entity.AuthorSummary;
+import recipeSharing.entity.Recipe;
+import recipeSharing.event.RecipeChangeEvent;
+import recipeSharing.repository.RecipeRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NDJSON import and export of recipes. Both directions hold at most one chunk of recipes in
+ * memory: the import reads one line at a time and writes every chunk with a single unordered
+ * bulk insert, reporting each line's outcome as soon as its chunk is written; the export writes
+ * each document to the response as the Mongo cursor yields it, then a summary line with the count,
+ * which the import skips.
+ */
+@Service
+public class RecipeBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeBulkService.class);
+
+    // How the export's BulkExportSummaryDTO line starts; recipes have no status field
+    private static final String EXPORT_SUMMARY_PREFIX = "{\"status\":\"summary\",";
+    private static final int EXPORT_SUMMARY_MAX_CHARS = 64;
+
+    private final RecipeRepository recipeRepository;
+    private final ImageStoreService imageStoreService;
+    private final AuthorService authorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader recipeReader;
+    private final ObjectWriter lineWriter;
+
+    @Value("${recipes.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    // Longer lines are skipped and reported instead of being buffered
+    @Value("${recipes.bulk.max-line-chars:16777216}")
+    private int maxLineChars;
+
+    public RecipeBulkService(RecipeRepository recipeRepository, ImageStoreService imageStoreService,
+                             AuthorService authorService, ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper) {
+        this.recipeRepository = recipeRepository;
+        this.imageStoreService = imageStoreService;
+        this.authorService = authorService;
+        this.eventPublisher = eventPublisher;
+        this.recipeReader = objectMapper.readerFor(Recipe.class);
+        this.lineWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // Import every line of in as a recipe owned by owner, writing one result line per input line to out
+    public BulkImportSummaryDTO importRecipes(InputStream in, String owner, OutputStream out) throws IOException {
+        AuthorSummary author = authorService.findByUsername(owner).orElse(null);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        BulkImportSummaryDTO summary = new BulkImportSummaryDTO();
+
+        List<Recipe> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        StringBuilder line = new StringBuilder();
+        long lineNumber = 0;
+
+        while (true) {
+            int length = readLine(reader, line);
+            if (length < 0) {
+                break;
+            }
+            lineNumber++;
+            if (line.length() == 0 || line.toString().isBlank()) {
+                continue; // Blank lines, e.g. a trailing newline, are not records
+            }
+            if (isExportSummary(line)) {
+                continue; // So an export can be imported as it is
+            }
+            summary.setLines(summary.getLines() + 1);
+            if (length > maxLineChars) {
+                fail(out, summary, BulkImportLineDTO.failed(lineNumber, "Line longer than " + maxLineChars + " characters"));
+                continue;
+            }
+
+            try {
+                chunk.add(toRecipe(line, owner, author));
+                chunkLines.add(lineNumber);
+            } catch (JsonProcessingException e) {
+                fail(out, summary, BulkImportLineDTO.failed(lineNumber, "Invalid JSON: " + e.getOriginalMessage()));
+            } catch (IllegalArgumentException e) {
+                fail(out, summary, BulkImportLineDTO.failed(lineNumber, e.getMessage()));
+            }
+
+            if (chunk.size() >= chunkSize) {
+                flushChunk(chunk, chunkLines, out, summary);
+            }
+        }
+        flushChunk(chunk, chunkLines, out, summary);
+
+        write(out, summary);
+        logger.info("Bulk import by {}: {} lines, {} created, {} failed",
+                owner, summary.getLines(), summary.getCreated(), summary.getFailed());
+        return summary;
+    }
+
+    // Write matching recipes to out as NDJSON, oldest first, and a summary line with their count last
+    public BulkExportSummaryDTO exportRecipes(String createdBy, OutputStream out) throws IOException {
+        BulkExportSummaryDTO summary = new BulkExportSummaryDTO();
+        try {
+            recipeRepository.forEachForExport(createdBy, recipe -> {
+                try {
+                    write(out, recipe);
+                    summary.setRecipes(summary.getRecipes() + 1);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // Usually the client went away; stop reading the cursor
+        }
+        write(out, summary);
+        out.flush();
+        return summary;
+    }
+
+    private Recipe toRecipe(CharSequence line, String owner, AuthorSummary author) throws IOException {
+        Recipe recipe = recipeReader.readValue(line.toString());
+        if (recipe.getTitle() == null || recipe.getTitle().isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        if (recipe.getServingSize() < 0) {
+            throw new IllegalArgumentException("servingSize must not be negative");
+        }
+        // Keep ids from an export so references survive a restore; assign the rest up front so
+        // every line's result can name its id without reading anything back
+        if (recipe.getId() == null || recipe.getId().isBlank()) {
+            recipe.setId(new ObjectId().toHexString());
+        } else if (!ObjectId.isValid(recipe.getId())) {
+            throw new IllegalArgumentException("id must be a 24 character hex ObjectId");
+        }
+        recipe.setCreatedBy(owner);
+        recipe.setAuthor(author);
+        recipe.setFavoritedBy(null);
+        recipe.setFavoriteCount(0);
+        recipe.setVersion(0L);
+        recipe.setImageUrl(imageStoreService.storeInline(recipe.getImageUrl()));
+        return recipe;
+    }
+
+    private void flushChunk(List<Recipe> chunk, List<Long> chunkLines, OutputStream out, BulkImportSummaryDTO summary) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> failures = recipeRepository.insertUnordered(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = failures.get(i);
+            if (error != null) {
+                fail(out, summary, BulkImportLineDTO.failed(chunkLines.get(i), error));
+            } else {
+                summary.setCreated(summary.getCreated() + 1);
+                write(out, BulkImportLineDTO.created(chunkLines.get(i), chunk.get(i).getId()));
+                eventPublisher.publishEvent(RecipeChangeEvent.created(chunk.get(i)));
+            }
+        }
+        out.flush(); // Let the client see this chunk's results while the next one is parsed
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private static boolean isExportSummary(CharSequence line) {
+        return line.length() <= EXPORT_SUMMARY_MAX_CHARS && line.toString().startsWith(EXPORT_SUMMARY_PREFIX);
+    }
+
+    private void fail(OutputStream out, BulkImportSummaryDTO summary, BulkImportLineDTO result) throws IOException {
+        summary.setFailed(summary.getFailed() + 1);
+        write(out, result);
+    }
+
+    private void write(OutputStream out, Object value) throws IOException {
+        lineWriter.writeValue(out, value);
+        out.write('\n');
+    }
+
+    // Read one line into line, keeping at most maxLineChars + 1 characters of it; returns the
+    // full length of the line, or -1 at end of input
+    private int readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c = reader.read();
+        if (c < 0) {
+            return -1;
+        }
+        while (c >= 0 && c != '\n') {
+            if (c != '\r') {
+                if (length <= maxLineChars) {
+                    line.append((char) c);
+                }
+                length++;
+            }
+            c = reader.read();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,307 @@
+package recipeSharing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import recipeSharing.bean.RecipeCostDTO;
+import recipeSharing.entity.Ingredient;
+import recipeSharing.entity.Recipe;
+import recipeSharing.event.PriceChangeEvent;
+import recipeSharing.event.RecipeChangeEvent;
+import recipeSharing.repository.RecipeRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Current cost of every recipe, kept in a precomputed table. Ingredients are matched to priced
+ * items by case-insensitive name, and a leading number in unitOfMeasurement ("2 kg", "1/2 cup")
+ * is used as the quantity. A reverse index from ingredient to recipes means a price tick only
+ * recomputes the recipes that use a changed item. A set ordered by cost answers
+ * "cheapest right now" without touching the rest of the table.
+ */
+@Service
+public class RecipeCostService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeCostService.class);
+
+    private static final Comparator<RecipeCost> CHEAPEST_FIRST =
+            Comparator.comparingLong((RecipeCost cost) -> cost.totalCents).thenComparing(cost -> cost.recipeId);
+
+    private final RecipeRepository recipeRepository;
+    private final PriceListService priceListService;
+
+    // Writers (price ticks, recipe events, rebuild) take the lock; readers use the concurrent views
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<String, RecipeCost> costs = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<RecipeCost> cheapest = new ConcurrentSkipListSet<>(CHEAPEST_FIRST);
+    private final Map<String, Set<String>> recipesByIngredient = new HashMap<>(); // guarded by writeLock
+    private long appliedPriceVersion = -1; // guarded by writeLock
+
+    private volatile PriceLookup priceLookup = new PriceLookup(-1, Collections.emptyMap());
+
+    public RecipeCostService(RecipeRepository recipeRepository, PriceListService priceListService) {
+        this.recipeRepository = recipeRepository;
+        this.priceListService = priceListService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            costs.clear();
+            cheapest.clear();
+            recipesByIngredient.clear();
+            PriceSnapshot snapshot = priceListService.getSnapshot();
+            recipeRepository.forEachForIndexing(recipe -> index(recipe, snapshot));
+            appliedPriceVersion = snapshot.getVersion();
+            logger.info("Recipe cost table built for {} recipes at price version {}", costs.size(), appliedPriceVersion);
+        } catch (Exception e) {
+            logger.error("Failed to build recipe cost table", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onRecipeChange(RecipeChangeEvent event) {
+        writeLock.lock();
+        try {
+            remove(event.getRecipeId());
+            if (event.getRecipe() != null) {
+                index(event.getRecipe(), priceListService.getSnapshot());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Recompute only the recipes that use an item changed since the last applied snapshot
+    @EventListener
+    public void onPriceChange(PriceChangeEvent event) {
+        writeLock.lock();
+        try {
+            PriceSnapshot snapshot = priceListService.getSnapshot(); // Latest, in case events arrive out of order
+            if (snapshot.getVersion() <= appliedPriceVersion) {
+                return;
+            }
+            Set<String> affected = new HashSet<>();
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (snapshot.changedAt(i) > appliedPriceVersion) {
+                    affected.addAll(recipesByIngredient.getOrDefault(normalize(snapshot.item(i)), Collections.emptySet()));
+                }
+            }
+            for (String recipeId : affected) {
+                RecipeCost existing = costs.get(recipeId);
+                if (existing != null) {
+                    replace(existing, existing.recompute(snapshot, lookupFor(snapshot)));
+                }
+            }
+            appliedPriceVersion = snapshot.getVersion();
+            logger.debug("Recomputed {} recipe costs for price version {}", affected.size(), appliedPriceVersion);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Optional<RecipeCostDTO> getCost(String recipeId, Integer servings) {
+        return Optional.ofNullable(costs.get(recipeId)).map(cost -> cost.toDTO(servings));
+    }
+
+    public List<RecipeCostDTO> getCosts(List<String> recipeIds, Integer servings) {
+        List<RecipeCostDTO> result = new ArrayList<>(recipeIds.size());
+        for (String recipeId : recipeIds) {
+            RecipeCost cost = costs.get(recipeId);
+            if (cost != null) {
+                result.add(cost.toDTO(servings));
+            }
+        }
+        return result;
+    }
+
+    // Cheapest recipes by total cost; only recipes with at least one priced ingredient are ranked
+    public List<RecipeCostDTO> getCheapest(int limit) {
+        List<RecipeCostDTO> result = new ArrayList<>(limit);
+        Iterator<RecipeCost> iterator = cheapest.iterator();
+        while (iterator.hasNext() && result.size() < limit) {
+            result.add(iterator.next().toDTO(null));
+        }
+        return result;
+    }
+
+    private void index(Recipe recipe, PriceSnapshot snapshot) {
+        List<Ingredient> ingredients = recipe.getIngredients() != null ? recipe.getIngredients() : Collections.emptyList();
+        String[] names = new String[ingredients.size()];
+        String[] keys = new String[ingredients.size()];
+        double[] quantities = new double[ingredients.size()];
+        for (int i = 0; i < ingredients.size(); i++) {
+            Ingredient ingredient = ingredients.get(i);
+            names[i] = ingredient.getName();
+            keys[i] = normalize(ingredient.getName());
+            quantities[i] = parseQuantity(ingredient.getUnitOfMeasurement());
+            recipesByIngredient.computeIfAbsent(keys[i], key -> new HashSet<>()).add(recipe.getId());
+        }
+        RecipeCost cost = new RecipeCost(recipe.getId(), recipe.getTitle(), recipe.getServingSize(), names, keys, quantities)
+                .recompute(snapshot, lookupFor(snapshot));
+        replace(null, cost);
+    }
+
+    private void remove(String recipeId) {
+        RecipeCost existing = costs.remove(recipeId);
+        if (existing == null) {
+            return;
+        }
+        cheapest.remove(existing);
+        for (String key : existing.keys) {
+            Set<String> recipes = recipesByIngredient.get(key);
+            if (recipes != null && recipes.remove(recipeId) && recipes.isEmpty()) {
+                recipesByIngredient.remove(key);
+            }
+        }
+    }
+
+    private void replace(RecipeCost existing, RecipeCost updated) {
+        if (existing != null) {
+            cheapest.remove(existing);
+        }
+        costs.put(updated.recipeId, updated);
+        if (updated.matched > 0) {
+            cheapest.add(updated);
+        }
+    }
+
+    // Normalized item name -> ordinal; items are only ever appended, so it is rebuilt when the count grows
+    private Map<String, Integer> lookupFor(PriceSnapshot snapshot) {
+        PriceLookup lookup = priceLookup;
+        if (lookup.size != snapshot.size()) {
+            Map<String, Integer> ordinals = new HashMap<>();
+            for (int i = 0; i < snapshot.size(); i++) {
+                ordinals.putIfAbsent(normalize(snapshot.item(i)), i);
+            }
+            lookup = new PriceLookup(snapshot.size(), ordinals);
+            priceLookup = lookup;
+        }
+        return lookup.ordinals;
+    }
+
+    static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Leading amount of a unit string: "2 kg" -> 2, "1/2 cup" -> 0.5, "1 1/2 cups" -> 1.5, otherwise 1
+    static double parseQuantity(String unitOfMeasurement) {
+        if (unitOfMeasurement == null) {
+            return 1;
+        }
+        String[] tokens = unitOfMeasurement.trim().split("\\s+");
+        double quantity = 0;
+        int parsed = 0;
+        for (String token : tokens) {
+            Double value = parseAmount(token);
+            if (value == null || parsed == 2) {
+                break;
+            }
+            quantity += value;
+            parsed++;
+        }
+        return parsed == 0 || quantity <= 0 ? 1 : quantity;
+    }
+
+    private static Double parseAmount(String token) {
+        try {
+            int slash = token.indexOf('/');
+            if (slash > 0) {
+                return Double.parseDouble(token.substring(0, slash)) / Double.parseDouble(token.substring(slash + 1));
+            }
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class PriceLookup {
+        private final int size;
+        private final Map<String, Integer> ordinals;
+
+        private PriceLookup(int size, Map<String, Integer> ordinals) {
+            this.size = size;
+            this.ordinals = ordinals;
+        }
+    }
+
+    // Immutable cost row; a price change produces a new row
+    private static final class RecipeCost {
+        private final String recipeId;
+        private final String title;
+        private final int servingSize;
+        private final String[] names;
+        private final String[] keys;
+        private final double[] quantities;
+        private final long totalCents;
+        private final int matched;
+        private final boolean[] priced;
+        private final long priceVersion;
+
+        private RecipeCost(String recipeId, String title, int servingSize, String[] names, String[] keys, double[] quantities) {
+            this(recipeId, title, servingSize, names, keys, quantities, 0, 0, new boolean[keys.length], -1);
+        }
+
+        private RecipeCost(String recipeId, String title, int servingSize, String[] names, String[] keys, double[] quantities,
+                           long totalCents, int matched, boolean[] priced, long priceVersion) {
+            this.recipeId = recipeId;
+            this.title = title;
+            this.servingSize = servingSize;
+            this.names = names;
+            this.keys = keys;
+            this.quantities = quantities;
+            this.totalCents = totalCents;
+            this.matched = matched;
+            this.priced = priced;
+            this.priceVersion = priceVersion;
+        }
+
+        private RecipeCost recompute(PriceSnapshot snapshot, Map<String, Integer> ordinals) {
+            long total = 0;
+            int matchedCount = 0;
+            boolean[] pricedNow = new boolean[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                Integer ordinal = ordinals.get(keys[i]);
+                if (ordinal != null) {
+                    total += Math.round(snapshot.cents(ordinal) * quantities[i]);
+                    pricedNow[i] = true;
+                    matchedCount++;
+                }
+            }
+            return new RecipeCost(recipeId, title, servingSize, names, keys, quantities, total, matchedCount, pricedNow, snapshot.getVersion());
+        }
+
+        private RecipeCostDTO toDTO(Integer servings) {
+            int baseServings = Math.max(1, servingSize);
+            int targetServings = servings == null || servings <= 0 ? baseServings : servings;
+            long scaledTotal = Math.round((double) totalCents * targetServings / baseServings);
+            List<String> unpriced = new ArrayList<>();
+            for (int i = 0; i < names.length; i++) {
+                if (!priced[i]) {
+                    unpriced.add(names[i]);
+                }
+            }
+            return new RecipeCostDTO(recipeId, title, servingSize, targetServings,
+                    PriceSnapshot.format(scaledTotal), PriceSnapshot.format(Math.round((double) scaledTotal / targetServings)),
+                    matched, unpriced, priceVersion);
+        }
+    }
+}
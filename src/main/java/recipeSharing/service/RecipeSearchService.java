@@ -0,0 +1,411 @@
+package recipeSharing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import recipeSharing.bean.SearchHitDTO;
+import recipeSharing.bean.SearchResultDTO;
+import recipeSharing.entity.Ingredient;
+import recipeSharing.entity.Recipe;
+import recipeSharing.event.RecipeChangeEvent;
+import recipeSharing.repository.RecipeRepository;
+import recipeSharing.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over recipe title, description, instructions and ingredient names,
+ * ranked with BM25. Title terms count three times. Posting lists are parallel int arrays of
+ * document ordinals and term frequencies. An update tombstones the old ordinal and appends a new
+ * one, and the index compacts itself from its own per-document term lists once tombstones pile up.
+ * The last query term is prefix-matched so the endpoint works for search-as-you-type.
+ */
+@Service
+public class RecipeSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeSearchService.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "the", "of", "to", "in", "with", "for", "on", "or");
+
+    private final RecipeRepository recipeRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    // All fields below are guarded by lock
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<String, Integer> ordinalById = new HashMap<>();
+    private String[] ids = new String[1024];
+    private String[] titles = new String[1024];
+    private int[] lengths = new int[1024];
+    private String[][] docTerms = new String[1024][];
+    private int[][] docFreqs = new int[1024][];
+    private final BitSet deleted = new BitSet();
+    private int nextOrdinal;
+    private int liveDocs;
+    private long liveLength;
+
+    public RecipeSearchService(RecipeRepository recipeRepository) {
+        this.recipeRepository = recipeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            recipeRepository.forEachForIndexing(this::add);
+            logger.info("Recipe search index built: {} recipes, {} terms", liveDocs, postings.size());
+        } catch (Exception e) {
+            logger.error("Failed to build recipe search index", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onRecipeChange(RecipeChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getRecipeId());
+            if (event.getRecipe() != null) {
+                add(event.getRecipe());
+            }
+            if (deleted.cardinality() > 1024 && deleted.cardinality() > liveDocs / 4) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchResultDTO search(String query, int page, int size) {
+        long start = System.nanoTime();
+        List<String> terms = tokenize(query);
+        boolean prefixLast = !terms.isEmpty() && !query.endsWith(" ");
+
+        lock.readLock().lock();
+        try {
+            ScoreAccumulator scores = new ScoreAccumulator();
+            double avgLength = liveDocs == 0 ? 1 : (double) liveLength / liveDocs;
+            for (int t = 0; t < terms.size(); t++) {
+                for (PostingList list : expand(terms.get(t), prefixLast && t == terms.size() - 1)) {
+                    double idf = Math.log(1 + (liveDocs - list.live + 0.5) / (list.live + 0.5));
+                    for (int i = 0; i < list.size; i++) {
+                        int ordinal = list.docs[i];
+                        if (deleted.get(ordinal)) {
+                            continue;
+                        }
+                        int tf = list.freqs[i];
+                        double norm = tf + K1 * (1 - B + B * lengths[ordinal] / avgLength);
+                        scores.add(ordinal, idf * tf * (K1 + 1) / norm);
+                    }
+                }
+            }
+
+            // Keep only the top (page + 1) * size slots in a min-heap keyed by score; computed as long
+            // and clamped to the matches, so a far-off page cannot overflow into a negative offset
+            long from = (long) page * size;
+            int wanted = (int) Math.min(((long) page + 1) * size, scores.size());
+            PriorityQueue<Integer> top = new PriorityQueue<>(wanted + 1,
+                    (a, b) -> Double.compare(scores.scoreAt(a), scores.scoreAt(b)));
+            for (int slot = scores.firstSlot(); slot >= 0; slot = scores.nextSlot(slot)) {
+                top.add(slot);
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            }
+            List<SearchHitDTO> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int slot = top.poll();
+                int ordinal = scores.ordinalAt(slot);
+                ranked.add(new SearchHitDTO(ids[ordinal], titles[ordinal], scores.scoreAt(slot)));
+            }
+            Collections.reverse(ranked);
+            List<SearchHitDTO> hits = from >= ranked.size()
+                    ? Collections.emptyList()
+                    : ranked.subList((int) from, Math.min(ranked.size(), wanted));
+            return new SearchResultDTO(query, scores.size(), page, size, new ArrayList<>(hits));
+        } finally {
+            lock.readLock().unlock();
+            latency.recordNanos(System.nanoTime() - start);
+        }
+    }
+
+    // Search latency percentiles in microseconds
+    public Map<String, Long> getLatencyStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("count", latency.getCount());
+        stats.put("p50Micros", latency.percentileMicros(50));
+        stats.put("p95Micros", latency.percentileMicros(95));
+        stats.put("p99Micros", latency.percentileMicros(99));
+        return stats;
+    }
+
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    private List<PostingList> expand(String term, boolean prefix) {
+        if (!prefix) {
+            PostingList list = postings.get(term);
+            return list == null ? Collections.emptyList() : Collections.singletonList(list);
+        }
+        SortedMap<String, PostingList> matches = postings.subMap(term, term + Character.MAX_VALUE);
+        List<PostingList> lists = new ArrayList<>(Math.min(matches.size(), MAX_PREFIX_EXPANSIONS));
+        for (PostingList list : matches.values()) {
+            if (lists.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            lists.add(list);
+        }
+        return lists;
+    }
+
+    private void add(Recipe recipe) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(recipe.getTitle())) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        countTerms(frequencies, recipe.getDescription());
+        countTerms(frequencies, recipe.getInstructions());
+        if (recipe.getIngredients() != null) {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                countTerms(frequencies, ingredient.getName());
+            }
+        }
+
+        int ordinal = nextOrdinal++;
+        ensureCapacity(ordinal);
+        String[] terms = new String[frequencies.size()];
+        int[] freqs = new int[frequencies.size()];
+        int length = 0;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            terms[i] = entry.getKey();
+            freqs[i] = entry.getValue();
+            length += entry.getValue();
+            postings.computeIfAbsent(entry.getKey(), key -> new PostingList()).add(ordinal, entry.getValue());
+            i++;
+        }
+        ids[ordinal] = recipe.getId();
+        titles[ordinal] = recipe.getTitle();
+        lengths[ordinal] = length;
+        docTerms[ordinal] = terms;
+        docFreqs[ordinal] = freqs;
+        ordinalById.put(recipe.getId(), ordinal);
+        liveDocs++;
+        liveLength += length;
+    }
+
+    private void remove(String recipeId) {
+        Integer ordinal = ordinalById.remove(recipeId);
+        if (ordinal == null) {
+            return;
+        }
+        deleted.set(ordinal);
+        for (String term : docTerms[ordinal]) {
+            PostingList list = postings.get(term);
+            if (list != null && --list.live == 0) {
+                postings.remove(term);
+            }
+        }
+        liveDocs--;
+        liveLength -= lengths[ordinal];
+    }
+
+    // Re-number the live documents densely and rebuild the postings from per-document terms
+    private void compact() {
+        String[] oldIds = ids;
+        String[] oldTitles = titles;
+        String[][] oldTerms = docTerms;
+        int[][] oldFreqs = docFreqs;
+        int oldCount = nextOrdinal;
+        BitSet oldDeleted = (BitSet) deleted.clone();
+        clear();
+        for (int old = 0; old < oldCount; old++) {
+            if (oldDeleted.get(old)) {
+                continue;
+            }
+            int ordinal = nextOrdinal++;
+            ensureCapacity(ordinal);
+            int length = 0;
+            for (int i = 0; i < oldTerms[old].length; i++) {
+                postings.computeIfAbsent(oldTerms[old][i], key -> new PostingList()).add(ordinal, oldFreqs[old][i]);
+                length += oldFreqs[old][i];
+            }
+            ids[ordinal] = oldIds[old];
+            titles[ordinal] = oldTitles[old];
+            lengths[ordinal] = length;
+            docTerms[ordinal] = oldTerms[old];
+            docFreqs[ordinal] = oldFreqs[old];
+            ordinalById.put(oldIds[old], ordinal);
+            liveDocs++;
+            liveLength += length;
+        }
+        logger.debug("Recipe search index compacted to {} documents", liveDocs);
+    }
+
+    private void clear() {
+        postings.clear();
+        ordinalById.clear();
+        deleted.clear();
+        ids = new String[1024];
+        titles = new String[1024];
+        lengths = new int[1024];
+        docTerms = new String[1024][];
+        docFreqs = new int[1024][];
+        nextOrdinal = 0;
+        liveDocs = 0;
+        liveLength = 0;
+    }
+
+    private void ensureCapacity(int ordinal) {
+        if (ordinal >= ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+            docFreqs = Arrays.copyOf(docFreqs, capacity);
+        }
+    }
+
+    private static void countTerms(Map<String, Integer> frequencies, String text) {
+        for (String term : tokenize(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+    }
+
+    // Lower-case runs of letters and digits, without stop words
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = lower.substring(start, i);
+                if (!STOP_WORDS.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Open-addressing ordinal -> score map, so scoring does not box
+    private static final class ScoreAccumulator {
+        private int[] ordinals = new int[64];
+        private double[] scores = new double[64];
+        private boolean[] used = new boolean[64];
+        private int size;
+
+        private void add(int ordinal, double score) {
+            if (size * 2 >= ordinals.length) {
+                grow();
+            }
+            int slot = find(ordinal);
+            if (!used[slot]) {
+                used[slot] = true;
+                ordinals[slot] = ordinal;
+                size++;
+            }
+            scores[slot] += score;
+        }
+
+        private int find(int ordinal) {
+            int mask = ordinals.length - 1;
+            int slot = (ordinal * 0x9E3779B9) & mask;
+            while (used[slot] && ordinals[slot] != ordinal) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldOrdinals = ordinals;
+            double[] oldScores = scores;
+            boolean[] oldUsed = used;
+            ordinals = new int[oldOrdinals.length * 2];
+            scores = new double[oldOrdinals.length * 2];
+            used = new boolean[oldOrdinals.length * 2];
+            for (int i = 0; i < oldOrdinals.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = find(oldOrdinals[i]);
+                    used[slot] = true;
+                    ordinals[slot] = oldOrdinals[i];
+                    scores[slot] = oldScores[i];
+                }
+            }
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int firstSlot() {
+            return nextSlot(-1);
+        }
+
+        private int nextSlot(int slot) {
+            for (int i = slot + 1; i < used.length; i++) {
+                if (used[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int ordinalAt(int slot) {
+            return ordinals[slot];
+        }
+
+        private double scoreAt(int slot) {
+            return scores[slot];
+        }
+    }
+
+    // Append-only postings in ascending ordinal order; "live" counts entries not yet tombstoned
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+        private int live;
+
+        private void add(int ordinal, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = ordinal;
+            freqs[size] = frequency;
+            size++;
+            live++;
+        }
+    }
+}
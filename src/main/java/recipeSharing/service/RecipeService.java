@@ -1,12 +1,32 @@
 package recipeSharing.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import recipeSharing.bean.CursorPage;
+import recipeSharing.bean.WriteResult;
+import recipeSharing.entity.Ingredient;
 import recipeSharing.entity.Recipe;
+import recipeSharing.event.RecipeChangeEvent;
 import recipeSharing.repository.RecipeRepository;
+import recipeSharing.util.BatchingIterator;
+import recipeSharing.util.CursorUtils;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class RecipeService {
@@ -14,56 +34,187 @@ public class RecipeService {
     @Autowired
     private RecipeRepository recipeRepository;
 
+    // Page size used when the client does not ask for one, and the hard cap on what it may ask for
+    @Value("${recipes.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${recipes.page.max-size:100}")
+    private int maxPageSize;
+
+    // Documents per cursor batch when a page is streamed; the driver holds one batch at a time
+    @Value("${recipes.page.stream-batch-size:10}")
+    private int streamBatchSize;
+
+    @Autowired
+    private ImageStoreService imageStoreService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityVersionService entityVersionService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    // Fields a merge patch may change, and fields that are accepted but ignored. Every property a recipe
+    // response carries must be in one of the two, including derived ones like thumbnailUrl.
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("title", "description", "instructions",
+            "servingSize", "category", "ingredients", "imageUrl");
+    private static final Set<String> READ_ONLY_FIELDS = Set.of("id", "createdBy", "author", "authUser", "favorite",
+            "isFavorite", "favoriteCount", "version", "thumbnailUrl");
+    private static final TypeReference<List<Ingredient>> INGREDIENT_LIST = new TypeReference<>() {};
+
     // 1. Create a new recipe
-    public Recipe addRecipe(Recipe recipe) {
-        return recipeRepository.save(recipe); // Saves the recipe document to MongoDB
+    public Recipe addRecipe(Recipe recipe) throws IOException {
+        recipe.setImageUrl(imageStoreService.storeInline(recipe.getImageUrl())); // Keep only the hash reference in the document
+        recipe.setAuthor(authorService.findByUsername(recipe.getCreatedBy()).orElse(null));
+        Recipe saved = recipeRepository.save(recipe); // Saves the recipe document to MongoDB
+        eventPublisher.publishEvent(RecipeChangeEvent.created(saved));
+        return saved;
     }
 
-    // 2. Read a recipe by ID
-    public Optional<Recipe> getRecipeById(String id) {
-        return recipeRepository.findById(id); // Fetch a single recipe by ID
+    // 2. Read a recipe by ID, with the viewer's favorite flag from the same query
+    public Optional<Recipe> getRecipeById(String id, String viewer) {
+        Optional<Recipe> recipe = Optional.ofNullable(recipeRepository.findForViewer(id, viewer));
+        recipe.ifPresent(found -> {
+            found.setFavorite(found.getFavoritedBy() != null && !found.getFavoritedBy().isEmpty());
+            found.setFavoritedBy(null);
+        });
+        recipe.ifPresent(entityVersionService::recipeRead);
+        recipe.ifPresent(found -> authorService.attachAuthors(List.of(found)));
+        return recipe;
     }
 
-    // 2.1. Read all recipes
-    public List<Recipe> getAllRecipes() {
-        return recipeRepository.findAll(); // Fetch all recipes
+    // 2.1. Stream one keyset page of recipes, optionally filtered by category and creator, from a single
+    // cursor: favorite flags come from the same query and recipes are completed one cursor batch at a
+    // time, so the page is never held in memory. Recipes from before authors were embedded cost one $in
+    // lookup per batch, none once AuthorBackfillService has run. Yields up to pageSize + 1 recipes; the
+    // last one only signals that another page exists. The caller must close the stream.
+    public Stream<Recipe> streamRecipePage(String afterId, int pageSize, String category, String createdBy, String viewer) {
+        Stream<Recipe> recipes = recipeRepository.streamPage(afterId, category, createdBy, viewer, pageSize + 1, streamBatchSize);
+        Iterator<Recipe> batched = new BatchingIterator<>(recipes.iterator(), streamBatchSize, authorService::attachAuthors);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batched, Spliterator.ORDERED), false)
+                .onClose(recipes::close)
+                .map(recipe -> {
+                    recipe.setFavorite(recipe.getFavoritedBy() != null && !recipe.getFavoritedBy().isEmpty());
+                    recipe.setFavoritedBy(null);
+                    return recipe;
+                });
     }
 
-    // 3. Update an existing recipe
-    public Recipe updateRecipe(String id, Recipe updatedRecipe) {
-        Optional<Recipe> existingRecipeOptional = recipeRepository.findById(id);
-
-        if (existingRecipeOptional.isPresent()) {
-            Recipe existingRecipe = existingRecipeOptional.get();
+    // 3. Apply a JSON Merge Patch (RFC 7396) to a recipe owned by the given user, in one conditional write.
+    // Only the fields present in the patch are touched; null removes a field.
+    // When expectedVersion is given (from If-Match) the write only applies at that version.
+    public WriteResult<Recipe> updateRecipe(String id, String owner, Long expectedVersion, JsonNode patch) throws IOException {
+        Update update = toUpdate(patch);
+        Recipe updated = recipeRepository.updateOwned(id, owner, expectedVersion, update);
+        if (updated == null) {
+            return explainFailedWrite(id, owner);
+        }
+        eventPublisher.publishEvent(RecipeChangeEvent.updated(updated));
+        return WriteResult.ok(updated);
+    }
 
-            // Update the recipe details
-            existingRecipe.setTitle(updatedRecipe.getTitle());
-            existingRecipe.setDescription(updatedRecipe.getDescription());
-            existingRecipe.setInstructions(updatedRecipe.getInstructions());
-            existingRecipe.setServingSize(updatedRecipe.getServingSize());
-            existingRecipe.setIngredients(updatedRecipe.getIngredients());
+    // 4. Delete a recipe owned by the given user
+    public WriteResult<Void> deleteRecipe(String id, String owner) {
+        if (!recipeRepository.deleteOwned(id, owner)) {
+            return explainFailedWrite(id, owner);
+        }
+        eventPublisher.publishEvent(RecipeChangeEvent.deleted(id));
+        return WriteResult.ok(null);
+    }
 
-            return recipeRepository.save(existingRecipe); // Save updated recipe back to MongoDB
+    // Only reached when the conditional write matched nothing, so the happy path stays one round trip
+    private <T> WriteResult<T> explainFailedWrite(String id, String owner) {
+        Recipe current = recipeRepository.findWriteState(id);
+        if (current == null) {
+            return WriteResult.notFound();
+        }
+        if (!owner.equals(current.getCreatedBy())) {
+            return WriteResult.forbidden();
         }
-        return null; // Handle the case where the recipe doesn't exist
+        return WriteResult.preconditionFailed();
     }
 
+    // Translate a merge patch into $set/$unset on the editable fields; stores an inline image, so it blocks
+    public Update toUpdate(JsonNode patch) throws IOException {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Patch must be a JSON object");
+        }
+        Update update = new Update();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            JsonNode value = field.getValue();
+            if (READ_ONLY_FIELDS.contains(name)) {
+                continue; // Clients that send back the whole recipe also send these
+            }
+            if (!PATCHABLE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown recipe field: " + name);
+            }
+            if (value.isNull()) {
+                update.unset(name);
+            } else if (name.equals("servingSize")) {
+                if (!value.isIntegralNumber() || !value.canConvertToInt()) {
+                    throw new IllegalArgumentException("servingSize must be a whole number"); // canConvertToInt alone accepts 2.5
+                }
+                if (value.intValue() < 0) {
+                    throw new IllegalArgumentException("servingSize must not be negative"); // Same rule as the bulk import
+                }
+                update.set(name, value.intValue());
+            } else if (name.equals("ingredients")) {
+                update.set(name, objectMapper.convertValue(value, INGREDIENT_LIST));
+            } else if (!value.isTextual()) {
+                throw new IllegalArgumentException(name + " must be a string"); // asText() would store "" for objects and arrays
+            } else if (name.equals("imageUrl")) {
+                update.set(name, imageStoreService.storeInline(value.asText()));
+            } else {
+                update.set(name, value.asText());
+            }
+        }
+        if (update.getUpdateObject().isEmpty()) {
+            throw new IllegalArgumentException("Patch contains no editable fields");
+        }
+        return update;
+    }
 
-    // 4. Delete a recipe by ID
-    public void deleteRecipe(String id) {
-        recipeRepository.deleteById(id); // Delete a recipe by ID
+    // Flip the user's favorite on a recipe; empty when the recipe does not exist
+    public Optional<Recipe> toggleFavorite(String id, String username) {
+        Recipe recipe = recipeRepository.toggleFavorite(id, username);
+        if (recipe == null) {
+            return Optional.empty();
+        }
+        recipe.setFavorite(recipe.getFavoritedBy() != null && !recipe.getFavoritedBy().isEmpty());
+        recipe.setFavoritedBy(null);
+        entityVersionService.recipeWritten(recipe); // Not a RecipeChangeEvent: no index depends on favorites
+        return Optional.of(recipe);
     }
 
-    public List<Recipe> getRecipeByUsername(String username) {
-        // Assuming you have a repository method that allows you to find a recipe by user
-        return recipeRepository.findByCreatedBy(username);
+    // One keyset page of the recipes a user has favorited
+    public CursorPage<Recipe> getFavoritesPage(String username, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        List<Recipe> recipes = recipeRepository.findFavoritesPage(username, CursorUtils.decode(cursor), pageSize + 1);
+        recipes.forEach(recipe -> recipe.setFavorite(true));
+        authorService.attachAuthors(recipes);
+        return toPage(recipes, pageSize);
     }
 
-    public Recipe toggleFavorite(String id) throws Exception {
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new Exception("Recipe not found"));
+    public int pageSize(Integer size) {
+        return size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+    }
 
-        recipe.setFavorite(!recipe.isFavorite());
-        return recipeRepository.save(recipe);
+    // Trim the extra look-ahead row and turn the last id into the next cursor
+    CursorPage<Recipe> toPage(List<Recipe> recipes, int pageSize) {
+        String nextCursor = null;
+        if (recipes.size() > pageSize) {
+            recipes = recipes.subList(0, pageSize);
+            nextCursor = CursorUtils.encode(recipes.get(pageSize - 1).getId());
+        }
+        return new CursorPage<>(recipes, nextCursor, recipes.size());
     }
 }
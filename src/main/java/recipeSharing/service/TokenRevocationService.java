@@ -0,0 +1,140 @@
+package recipeSharing.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import recipeSharing.entity.RevokedToken;
+import recipeSharing.util.RotatingBloomFilter;
+import recipeSharing.util.TimingWheel;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token keys (jti or token hash) held only until the token would have expired anyway.
+ * Lookups go through a Bloom filter first, so the common "not revoked" case never touches the map.
+ * Expired entries are dropped by a timing wheel. With jwt.revocation.shared enabled, revocations are
+ * also written to a TTL-indexed Mongo collection and polled from there, so every instance sees them.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final long SYNC_OVERLAP_MS = 30_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean shared;
+    private final long maxTokenLifetimeMs;
+
+    // Revoked key -> token expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final RotatingBloomFilter bloomFilter;
+    private final TimingWheel<String> expiryWheel;
+
+    private long lastRotationMs = System.currentTimeMillis();
+    private Date lastSyncedRevokedAt = new Date(0);
+
+    public TokenRevocationService(MongoTemplate mongoTemplate,
+                                  @Value("${jwt.expiration}") long maxTokenLifetimeMs,
+                                  @Value("${jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${jwt.revocation.shared:false}") boolean shared) {
+        this.mongoTemplate = mongoTemplate;
+        this.shared = shared;
+        this.maxTokenLifetimeMs = maxTokenLifetimeMs;
+        this.bloomFilter = new RotatingBloomFilter(expectedRevocations, 0.01);
+        // One-second ticks with one slot per minute of token lifetime keeps each slot short
+        this.expiryWheel = new TimingWheel<>(1000, (int) Math.max(60, maxTokenLifetimeMs / 60_000), System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!shared) {
+            return;
+        }
+        mongoTemplate.indexOps(RevokedToken.class).ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(0));
+        mongoTemplate.indexOps(RevokedToken.class).ensureIndex(new Index().on("revokedAt", Sort.Direction.ASC));
+        syncSharedRevocations();
+    }
+
+    public void revoke(String key, long expiresAtMs) {
+        long now = System.currentTimeMillis();
+        if (expiresAtMs <= now) {
+            return; // An expired token is rejected anyway
+        }
+        revokeLocally(key, expiresAtMs);
+        if (shared) {
+            mongoTemplate.save(new RevokedToken(key, new Date(expiresAtMs), new Date(now)));
+        }
+    }
+
+    public boolean isRevoked(String key) {
+        if (!bloomFilter.mightContain(key)) {
+            return false;
+        }
+        Long expiresAtMs = revoked.get(key);
+        return expiresAtMs != null && expiresAtMs > System.currentTimeMillis();
+    }
+
+    // Lift a revocation (the key stays in the Bloom filter and just falls through to the map)
+    public void unrevoke(String key) {
+        revoked.remove(key);
+        if (shared) {
+            mongoTemplate.remove(new Query(Criteria.where("id").is(key)), RevokedToken.class);
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Drop entries whose token has expired, and rotate the Bloom filter once per token lifetime
+    @Scheduled(fixedDelay = 1000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        expiryWheel.advance(now, key -> revoked.computeIfPresent(key, (k, expiresAtMs) -> expiresAtMs <= now ? null : expiresAtMs));
+        if (now - lastRotationMs >= maxTokenLifetimeMs) {
+            bloomFilter.rotate();
+            lastRotationMs = now;
+        }
+    }
+
+    // Pick up revocations other instances have written since the last poll
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void syncSharedRevocations() {
+        if (!shared) {
+            return;
+        }
+        try {
+            // Look back a little past the last seen revocation to tolerate clock skew between instances
+            Date since = new Date(lastSyncedRevokedAt.getTime() - SYNC_OVERLAP_MS);
+            Query query = new Query(Criteria.where("revokedAt").gt(since)
+                    .and("expiresAt").gt(new Date()))
+                    .with(Sort.by(Sort.Direction.ASC, "revokedAt"));
+            List<RevokedToken> tokens = mongoTemplate.find(query, RevokedToken.class);
+            for (RevokedToken token : tokens) {
+                revokeLocally(token.getId(), token.getExpiresAt().getTime());
+                lastSyncedRevokedAt = token.getRevokedAt();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to sync shared token revocations", e);
+        }
+    }
+
+    private void revokeLocally(String key, long expiresAtMs) {
+        // Keep the latest expiry if the same key is revoked twice
+        revoked.merge(key, expiresAtMs, Math::max);
+        bloomFilter.put(key);
+        expiryWheel.schedule(key, expiresAtMs);
+    }
+}
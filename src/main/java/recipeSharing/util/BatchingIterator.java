@@ -0,0 +1,46 @@
+package recipeSharing.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+// Pulls items from source batchSize at a time and hands each batch to onBatch before yielding its
+// items, so per-item lookups can be made once per batch while the source is still read lazily
+public class BatchingIterator<T> implements Iterator<T> {
+
+    private final Iterator<T> source;
+    private final int batchSize;
+    private final Consumer<List<T>> onBatch;
+    private final Deque<T> buffer = new ArrayDeque<>();
+
+    public BatchingIterator(Iterator<T> source, int batchSize, Consumer<List<T>> onBatch) {
+        this.source = source;
+        this.batchSize = Math.max(1, batchSize);
+        this.onBatch = onBatch;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (buffer.isEmpty() && source.hasNext()) {
+            List<T> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && source.hasNext()) {
+                batch.add(source.next());
+            }
+            onBatch.accept(batch);
+            buffer.addAll(batch);
+        }
+        return !buffer.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return buffer.poll();
+    }
+}
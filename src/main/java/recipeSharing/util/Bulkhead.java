@@ -0,0 +1,60 @@
+package recipeSharing.util;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many callers may use a scarce resource at once, so that requests past the limit are
+ * turned away after a bounded wait instead of queueing inside it, e.g. for a Mongo connection.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int limit;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Bulkhead " + name + " needs at least one permit");
+        }
+        this.name = name;
+        this.limit = limit;
+        this.permits = new Semaphore(limit, true); // Fair, so a burst is served in arrival order
+    }
+
+    // Wait up to maxWait for a permit; false (and counted as rejected) when none freed up in time
+    public boolean tryAcquire(Duration maxWait) throws InterruptedException {
+        if (permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInUse() {
+        return limit - permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,37 @@
+package recipeSharing.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Function;
+
+public class CursorPageWriter {
+
+    // Write items as a CursorPage object (items, nextCursor, size), one item at a time as the
+    // iterator yields it. The iterator holds up to pageSize + 1 items; the extra one is not written,
+    // it only means there is a next page. Returns the number of items written.
+    public static <T> int writePage(JsonGenerator generator, Iterator<T> items, int pageSize,
+                                    Function<T, String> idOf) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("items");
+        int size = 0;
+        String lastId = null;
+        boolean hasMore = false;
+        while (items.hasNext()) {
+            T item = items.next();
+            if (size == pageSize) {
+                hasMore = true;
+                break;
+            }
+            generator.writeObject(item);
+            lastId = idOf.apply(item);
+            size++;
+        }
+        generator.writeEndArray();
+        generator.writeStringField("nextCursor", hasMore ? CursorUtils.encode(lastId) : null);
+        generator.writeNumberField("size", size);
+        generator.writeEndObject();
+        return size;
+    }
+}
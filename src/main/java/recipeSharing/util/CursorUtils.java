@@ -0,0 +1,27 @@
+package recipeSharing.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class CursorUtils {
+
+    // Encode the last seen document id as an opaque, URL-safe continuation token
+    public static String encode(String lastId) {
+        if (lastId == null) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Decode a continuation token back to the last seen document id (null or blank means first page)
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package recipeSharing.util;
+
+public class ETagUtils {
+
+    // Strong entity tag for a document version; documents written before versioning count as version 0
+    public static String forVersion(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    // Strong entity tag for a whole collection: the in-memory change counter, qualified by the process epoch
+    // so that a restart (which resets the counter) can never reproduce an old tag, and by the current
+    // period so that changes this process never saw are picked up within one period
+    public static String forCollection(long epoch, long changeCount, long period) {
+        return "\"" + epoch + "-" + changeCount + "-" + period + "\"";
+    }
+
+    // If-None-Match uses weak comparison: W/ is ignored and any listed tag (or *) matches
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Expected version from an If-Match header; null when absent or "*" (no version condition).
+    // If-Match uses strong comparison, so weak or non-version tags are rejected.
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.contains(",") || !tag.startsWith("\"") || !tag.endsWith("\"") || tag.length() < 3) {
+            throw new IllegalArgumentException("If-Match must be a single strong entity tag: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown entity tag: " + ifMatch, e);
+        }
+    }
+}
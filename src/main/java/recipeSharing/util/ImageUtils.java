@@ -3,10 +3,48 @@ package recipeSharing.util;
 import java.util.Base64;
 
 public class ImageUtils {
+
+    // Documents reference stored images by this path prefix followed by the SHA-256 hash
+    public static final String IMAGE_REFERENCE_PREFIX = "/images/";
+
+    // Name of the small rendition list views link to, at "/images/{hash}/thumb"
+    public static final String THUMBNAIL_VARIANT = "thumb";
+
     public static byte[] decodeBase64ToImage(String base64String) {
         if (base64String.startsWith("data:image")) {
             base64String = base64String.substring(base64String.indexOf(",") + 1);
         }
         return Base64.getDecoder().decode(base64String);
     }
+
+    public static boolean isImageReference(String value) {
+        return value != null && value.startsWith(IMAGE_REFERENCE_PREFIX);
+    }
+
+    public static String toImageReference(String hash) {
+        return IMAGE_REFERENCE_PREFIX + hash;
+    }
+
+    // Thumbnail reference for a stored image reference; null for anything else
+    public static String toThumbnailReference(String imageReference) {
+        return isImageReference(imageReference) ? imageReference + "/" + THUMBNAIL_VARIANT : null;
+    }
+
+    // Sniff the content type from the leading magic bytes of an image
+    public static String detectContentType(byte[] header, int length) {
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return "image/png";
+        }
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return "image/gif";
+        }
+        if (length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
 }
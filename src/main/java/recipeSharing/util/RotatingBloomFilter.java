@@ -0,0 +1,76 @@
+package recipeSharing.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings that forgets old keys by rotation instead of deletion.
+ * Keys are added to the current generation and looked up in the current and previous one;
+ * rotating drops the previous generation. Rotating at most once per key lifetime therefore
+ * keeps every live key visible, with no counters and no locks on the read path.
+ */
+public class RotatingBloomFilter {
+
+    private final int numBits;
+    private final int numHashes;
+
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+
+    public RotatingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.max(64, Math.min(bits, Integer.MAX_VALUE - 63));
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.current = new AtomicLongArray((numBits + 63) / 64);
+        this.previous = new AtomicLongArray((numBits + 63) / 64);
+    }
+
+    public void put(String key) {
+        AtomicLongArray words = current;
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            long mask = 1L << bit;
+            words.accumulateAndGet(bit >>> 6, mask, (word, m) -> word | m);
+        }
+    }
+
+    // False means the key was definitely never added (within the retained generations)
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return contains(current, h1, h2) || contains(previous, h1, h2);
+    }
+
+    public void rotate() {
+        previous = current;
+        current = new AtomicLongArray(previous.length());
+    }
+
+    private boolean contains(AtomicLongArray words, int h1, int h2) {
+        for (int i = 0; i < numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars, finished with a murmur3 avalanche
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
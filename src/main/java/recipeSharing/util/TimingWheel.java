@@ -0,0 +1,69 @@
+package recipeSharing.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: keys are dropped into the slot of their deadline tick and handed back
+ * once the wheel has advanced past that deadline. Scheduling is O(1) from any thread; advance()
+ * is meant to be driven by a single scheduler thread and only touches the slots it passes.
+ * Deadlines further out than one revolution simply stay in their slot until a later pass.
+ */
+public class TimingWheel<K> {
+
+    private final long tickMs;
+    private final Queue<Entry<K>>[] slots;
+    private long lastTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Generic arrays can only be created raw
+    public TimingWheel(long tickMs, int slotCount, long startMs) {
+        this.tickMs = tickMs;
+        this.slots = new Queue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = startMs / tickMs;
+    }
+
+    public void schedule(K key, long deadlineMs) {
+        slots[slotFor(deadlineMs / tickMs)].add(new Entry<>(key, deadlineMs));
+    }
+
+    // Hand every key whose deadline is at or before nowMs to the consumer
+    public void advance(long nowMs, Consumer<K> expired) {
+        long nowTick = nowMs / tickMs;
+        // Past one full revolution every slot is visited once
+        long from = Math.max(lastTick, nowTick - slots.length + 1);
+        for (long tick = from; tick <= nowTick; tick++) {
+            Queue<Entry<K>> slot = slots[slotFor(tick)];
+            int pending = slot.size();
+            for (int i = 0; i < pending; i++) {
+                Entry<K> entry = slot.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (entry.deadlineMs <= nowMs) {
+                    expired.accept(entry.key);
+                } else {
+                    slot.add(entry); // Due on a later revolution
+                }
+            }
+        }
+        lastTick = nowTick;
+    }
+
+    private int slotFor(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineMs;
+
+        private Entry(K key, long deadlineMs) {
+            this.key = key;
+            this.deadlineMs = deadlineMs;
+        }
+    }
+}
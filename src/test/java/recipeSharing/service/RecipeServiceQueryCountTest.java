@@ -0,0 +1,147 @@
+package recipeSharing.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import recipeSharing.bean.CursorPage;
+import recipeSharing.entity.AuthUser;
+import recipeSharing.entity.AuthorSummary;
+import recipeSharing.entity.Recipe;
+import recipeSharing.repository.AuthUserRepository;
+import recipeSharing.repository.RecipeRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// List and single reads must cost a fixed number of Mongo queries however many authors a page has.
+// Every call on a repository mock is one query.
+@ExtendWith(MockitoExtension.class)
+class RecipeServiceQueryCountTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int BATCH_SIZE = 10;
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private AuthUserRepository authUserRepository;
+
+    @Mock
+    private EntityVersionService entityVersionService;
+
+    private RecipeService recipeService;
+
+    @BeforeEach
+    void setUp() {
+        recipeService = new RecipeService();
+        ReflectionTestUtils.setField(recipeService, "recipeRepository", recipeRepository);
+        ReflectionTestUtils.setField(recipeService, "entityVersionService", entityVersionService);
+        ReflectionTestUtils.setField(recipeService, "authorService",
+                new AuthorService(authUserRepository, recipeRepository, entityVersionService));
+        ReflectionTestUtils.setField(recipeService, "defaultPageSize", PAGE_SIZE);
+        ReflectionTestUtils.setField(recipeService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(recipeService, "streamBatchSize", BATCH_SIZE);
+    }
+
+    @Test
+    void streamedPageWithEmbeddedAuthorsIsOneQuery() {
+        when(recipeRepository.streamPage(isNull(), isNull(), isNull(), eq("viewer"), eq(PAGE_SIZE + 1), eq(BATCH_SIZE)))
+                .thenReturn(recipes(PAGE_SIZE + 1, PAGE_SIZE + 1, true).stream());
+
+        List<Recipe> page = readPage();
+
+        assertEquals(PAGE_SIZE + 1, page.size());
+        assertEquals(1, queries());
+    }
+
+    @Test
+    void streamedPageOfLegacyRecipesLooksUpAuthorsOncePerBatch() {
+        // Every recipe by a different author, none with the author embedded
+        when(recipeRepository.streamPage(isNull(), isNull(), isNull(), eq("viewer"), eq(PAGE_SIZE + 1), eq(BATCH_SIZE)))
+                .thenReturn(recipes(PAGE_SIZE + 1, PAGE_SIZE + 1, false).stream());
+        when(authUserRepository.findAuthorsByUsernameIn(anyCollection())).thenAnswer(invocation -> users(invocation.getArgument(0)));
+
+        List<Recipe> page = readPage();
+
+        page.forEach(recipe -> assertNotNull(recipe.getAuthor(), recipe.getId()));
+        int batches = (PAGE_SIZE + 1 + BATCH_SIZE - 1) / BATCH_SIZE;
+        assertEquals(1 + batches, queries());
+        verify(authUserRepository, never()).findAuthorByUsername(any());
+    }
+
+    @Test
+    void favoritesPageIsAtMostTwoQueries() {
+        when(recipeRepository.findFavoritesPage(eq("viewer"), isNull(), eq(PAGE_SIZE + 1)))
+                .thenReturn(recipes(PAGE_SIZE + 1, 7, false));
+        when(authUserRepository.findAuthorsByUsernameIn(anyCollection())).thenAnswer(invocation -> users(invocation.getArgument(0)));
+
+        CursorPage<Recipe> page = recipeService.getFavoritesPage("viewer", null, null);
+
+        assertEquals(PAGE_SIZE, page.getSize());
+        assertTrue(page.getItems().stream().allMatch(Recipe::isFavorite));
+        assertEquals(2, queries());
+    }
+
+    @Test
+    void singleRecipeIsOneQueryIncludingTheFavoriteFlag() {
+        Recipe recipe = recipes(1, 1, true).get(0);
+        recipe.setFavoritedBy(List.of("viewer")); // As narrowed by the $elemMatch projection
+        when(recipeRepository.findForViewer("recipe-0", "viewer")).thenReturn(recipe);
+
+        Recipe found = recipeService.getRecipeById("recipe-0", "viewer").orElseThrow();
+
+        assertTrue(found.isFavorite());
+        assertEquals(null, found.getFavoritedBy());
+        assertEquals(1, queries());
+    }
+
+    private List<Recipe> readPage() {
+        try (Stream<Recipe> recipes = recipeService.streamRecipePage(null, PAGE_SIZE, null, null, "viewer")) {
+            return recipes.collect(Collectors.toList());
+        }
+    }
+
+    private int queries() {
+        return Mockito.mockingDetails(recipeRepository).getInvocations().size()
+                + Mockito.mockingDetails(authUserRepository).getInvocations().size();
+    }
+
+    private static List<Recipe> recipes(int count, int authors, boolean embedded) {
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String username = "user-" + (i % authors);
+            recipes.add(Recipe.builder()
+                    .id("recipe-" + i)
+                    .createdBy(username)
+                    .author(embedded ? new AuthorSummary("id-" + username, username, null) : null)
+                    .build());
+        }
+        return recipes;
+    }
+
+    private static List<AuthUser> users(Collection<String> usernames) {
+        return usernames.stream()
+                .map(username -> AuthUser.builder().id("id-" + username).username(username).build())
+                .collect(Collectors.toList());
+    }
+}